@@ -1,7 +1,6 @@
 package com.ramotion.cardslider.examples.simple;
 
 import android.animation.ObjectAnimator;
-import android.graphics.Bitmap;
 import android.os.Build;
 import android.os.Bundle;
 import android.support.v7.app.AppCompatActivity;
@@ -9,16 +8,17 @@ import android.support.v7.widget.CardView;
 import android.transition.Transition;
 import android.util.DisplayMetrics;
 import android.view.View;
-import android.widget.ImageView;
 
-import com.ramotion.cardslider.examples.simple.utils.DecodeBitmapTask;
+import com.ramotion.cardslider.examples.simple.utils.ImageHandoff;
+import com.ramotion.cardslider.examples.simple.utils.ProgressiveImageLoader;
+import com.ramotion.cardslider.examples.simple.utils.TiledImageView;
 
-public class DetailsActivity extends AppCompatActivity implements DecodeBitmapTask.Listener {
+public class DetailsActivity extends AppCompatActivity {
 
     static final String BUNDLE_IMAGE_ID = "BUNDLE_IMAGE_ID";
 
-    private ImageView imageView;
-    private DecodeBitmapTask decodeBitmapTask;
+    private TiledImageView imageView;
+    private ProgressiveImageLoader imageLoader;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -31,8 +31,7 @@ public class DetailsActivity extends AppCompatActivity implements DecodeBitmapTa
             return;
         }
 
-        imageView = (ImageView)findViewById(R.id.image);
-        imageView.setImageResource(smallResId);
+        imageView = (TiledImageView)findViewById(R.id.image);
 
         imageView.setOnClickListener(new View.OnClickListener() {
             @Override
@@ -41,9 +40,14 @@ public class DetailsActivity extends AppCompatActivity implements DecodeBitmapTa
             }
         });
 
-        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
-            loadFullSizeBitmap(smallResId);
-        } else {
+        // Card bitmap which is on screen already is shown during transition,
+        // big image is decoded in parallel with the transition
+        loadFullSizeBitmap(smallResId);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            // Tile layout follows view size, which changes on every frame of the transition
+            imageLoader.setTilesEnabled(false);
+
             getWindow().getSharedElementEnterTransition().addListener(new Transition.TransitionListener() {
 
                 private boolean isClosing = false;
@@ -63,7 +67,7 @@ public class DetailsActivity extends AppCompatActivity implements DecodeBitmapTa
                         isClosing = true;
 
                         removeCardCorners();
-                        loadFullSizeBitmap(smallResId);
+                        imageLoader.setTilesEnabled(true);
                     }
                 }
             });
@@ -74,8 +78,18 @@ public class DetailsActivity extends AppCompatActivity implements DecodeBitmapTa
     protected void onPause() {
         super.onPause();
 
-        if (isFinishing() && decodeBitmapTask != null) {
-            decodeBitmapTask.cancel(true);
+        if (isFinishing() && imageLoader != null) {
+            imageLoader.cancel();
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+
+        if (imageLoader != null) {
+            imageLoader.release();
+            imageLoader = null;
         }
     }
 
@@ -89,16 +103,19 @@ public class DetailsActivity extends AppCompatActivity implements DecodeBitmapTa
         ObjectAnimator.ofFloat(cardView, "radius", 0f).setDuration(50).start();
     }
 
-    private void loadFullSizeBitmap(int smallResId) {
-        int bigResId;
+    static int getBigResId(int smallResId) {
         switch (smallResId) {
-            case R.drawable.p1: bigResId = R.drawable.p1_big; break;
-            case R.drawable.p2: bigResId = R.drawable.p2_big; break;
-            case R.drawable.p3: bigResId = R.drawable.p3_big; break;
-            case R.drawable.p4: bigResId = R.drawable.p4_big; break;
-            case R.drawable.p5: bigResId = R.drawable.p5_big; break;
-            default: bigResId = R.drawable.p1_big;
+            case R.drawable.p1: return R.drawable.p1_big;
+            case R.drawable.p2: return R.drawable.p2_big;
+            case R.drawable.p3: return R.drawable.p3_big;
+            case R.drawable.p4: return R.drawable.p4_big;
+            case R.drawable.p5: return R.drawable.p5_big;
+            default: return R.drawable.p1_big;
         }
+    }
+
+    private void loadFullSizeBitmap(int smallResId) {
+        final int bigResId = getBigResId(smallResId);
 
         final DisplayMetrics metrics = new DisplayMetrics();
         getWindowManager().getDefaultDisplay().getRealMetrics(metrics);
@@ -106,13 +123,8 @@ public class DetailsActivity extends AppCompatActivity implements DecodeBitmapTa
         final int w = metrics.widthPixels;
         final int h = metrics.heightPixels;
 
-        decodeBitmapTask = new DecodeBitmapTask(getResources(), bigResId, w, h, this);
-        decodeBitmapTask.execute();
-    }
-
-    @Override
-    public void onPostExecuted(Bitmap bitmap) {
-        imageView.setImageBitmap(bitmap);
+        imageLoader = new ProgressiveImageLoader(getResources(), bigResId, imageView);
+        imageLoader.start(w, h, ImageHandoff.take(smallResId));
     }
 
 }
@@ -2,23 +2,62 @@ package com.ramotion.cardslider.examples.simple;
 
 import android.app.ActivityOptions;
 import android.content.Intent;
+import android.graphics.Bitmap;
 import android.os.Build;
 import android.os.Bundle;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.widget.CardView;
 import android.support.v7.widget.RecyclerView;
+import android.util.DisplayMetrics;
 import android.view.View;
 
+import com.ramotion.cardslider.AdaptiveQualityHelper;
 import com.ramotion.cardslider.CardSliderLayoutManager;
 import com.ramotion.cardslider.CardSnapHelper;
+import com.ramotion.cardslider.ViewUpdaterRegistry;
+import com.ramotion.cardslider.examples.simple.cards.CardsUpdater;
+import com.ramotion.cardslider.examples.simple.cards.ImagePrefetcher;
 import com.ramotion.cardslider.examples.simple.cards.SliderAdapter;
+import com.ramotion.cardslider.examples.simple.cards.SliderCard;
+import com.ramotion.cardslider.examples.simple.cards.SliderSession;
+import com.ramotion.cardslider.examples.simple.utils.BackgroundBitmapCache;
+import com.ramotion.cardslider.examples.simple.utils.DecodePolicy;
+import com.ramotion.cardslider.examples.simple.utils.DecodeScheduler;
+import com.ramotion.cardslider.examples.simple.utils.DiskBitmapCache;
+import com.ramotion.cardslider.examples.simple.utils.ImageHandoff;
+import com.ramotion.cardslider.examples.simple.utils.PlaceholderIndex;
+import com.ramotion.cardslider.examples.simple.utils.ProgressiveImageLoader;
 
 public class MainActivity extends AppCompatActivity {
 	
-	private final int[] pics = {R.drawable.p1, R.drawable.p2, R.drawable.p3, R.drawable.p4, R.drawable.p5};
+	static {
+		ViewUpdaterRegistry.register(CardsUpdater.class, new CardSliderLayoutManager.ViewUpdater.Factory() {
+			@Override
+			public CardSliderLayoutManager.ViewUpdater create() {
+				return new CardsUpdater();
+			}
+		});
+	}
+	
+	private static final int[] pics = {R.drawable.p1, R.drawable.p2, R.drawable.p3, R.drawable.p4, R.drawable.p5};
+	
+	/** Doesn't reference activity, since it's kept by retained session. */
+	private static final ImagePrefetcher.ContentProvider contentProvider = new ImagePrefetcher.ContentProvider() {
+		@Override
+		public int getCardImage(int position) {
+			return pics[position % pics.length];
+		}
+		
+		@Override
+		public int getDetailsImage(int position) {
+			return DetailsActivity.getBigResId(pics[position % pics.length]);
+		}
+	};
 	
 	private final SliderAdapter sliderAdapter = new SliderAdapter(pics, 20, new OnCardClickListener());
 	
+	private SliderSession session;
+	private ImagePrefetcher imagePrefetcher;
 	private CardSliderLayoutManager layoutManger;
 	private RecyclerView recyclerView;
 	private int currentPosition;
@@ -26,9 +65,29 @@ public class MainActivity extends AppCompatActivity {
 	@Override
 	protected void onCreate(Bundle savedInstanceState) {
 		super.onCreate(savedInstanceState);
+		BackgroundBitmapCache.init(this);
+		DiskBitmapCache.init(this);
+		PlaceholderIndex.init(this);
+		DecodePolicy.setDefault(DecodePolicy.forDevice(this));
 		setContentView(R.layout.activity_main);
 		
+		session = SliderSession.obtain(this);
+		imagePrefetcher = session.getImagePrefetcher(contentProvider);
+		
 		initRecyclerView();
+		session.restore(recyclerView, sliderAdapter);
+	}
+	
+	@Override
+	protected void onDestroy() {
+		super.onDestroy();
+		if (isChangingConfigurations()) {
+			// Session cancels prefetches when activity is finally destroyed
+			session.save(recyclerView, sliderAdapter);
+		} else {
+			// Recycles attached and cached cards, so they release their bitmap references
+			recyclerView.setAdapter(null);
+		}
 	}
 	
 	private void initRecyclerView() {
@@ -43,11 +102,33 @@ public class MainActivity extends AppCompatActivity {
 					onActiveCardChange();
 				}
 			}
+			
+			@Override
+			public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+				DecodeScheduler.getInstance().setActivePosition(layoutManger.getActiveCardPosition());
+			}
 		});
 		
 		layoutManger = (CardSliderLayoutManager) recyclerView.getLayoutManager();
 		
 		new CardSnapHelper().attachToRecyclerView(recyclerView);
+		
+		final AdaptiveQualityHelper qualityHelper = new AdaptiveQualityHelper();
+		qualityHelper.setOnQualityLevelChangeListener(new AdaptiveQualityHelper.OnQualityLevelChangeListener() {
+			@Override
+			public void onQualityLevelChanged(int level) {
+				sliderAdapter.setLowResolution(level >= AdaptiveQualityHelper.QUALITY_LOW_RES_IMAGES);
+			}
+		});
+		qualityHelper.attachToRecyclerView(recyclerView);
+		
+		final DisplayMetrics metrics = new DisplayMetrics();
+		getWindowManager().getDefaultDisplay().getRealMetrics(metrics);
+		// Details screen shows preview first, full resolution is decoded in tiles
+		imagePrefetcher.setDetailsSize(
+				metrics.widthPixels / ProgressiveImageLoader.PREVIEW_FACTOR,
+				metrics.heightPixels / ProgressiveImageLoader.PREVIEW_FACTOR);
+		recyclerView.addOnScrollListener(imagePrefetcher);
 	}
 	
 	private void onActiveCardChange() {
@@ -90,8 +171,14 @@ public class MainActivity extends AppCompatActivity {
 			
 			final int clickedPosition = recyclerView.getChildAdapterPosition(view);
 			if (clickedPosition == activeCardPosition) {
+				final int resId = pics[activeCardPosition % pics.length];
 				final Intent intent = new Intent(MainActivity.this, DetailsActivity.class);
-				intent.putExtra(DetailsActivity.BUNDLE_IMAGE_ID, pics[activeCardPosition % pics.length]);
+				intent.putExtra(DetailsActivity.BUNDLE_IMAGE_ID, resId);
+				
+				final Bitmap bitmap = ((SliderCard) recyclerView.getChildViewHolder(view)).getBitmap();
+				if (bitmap != null) {
+					ImageHandoff.offer(resId, bitmap);
+				}
 				
 				if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
 					startActivity(intent);
@@ -6,18 +6,55 @@ import android.support.v4.view.ViewCompat;
 import android.support.v7.widget.CardView;
 import android.view.View;
 
+import com.ramotion.cardslider.AdaptiveQualityHelper;
 import com.ramotion.cardslider.CardSliderLayoutManager;
 import com.ramotion.cardslider.DefaultViewUpdater;
 
-public class CardsUpdater extends DefaultViewUpdater {
+public class CardsUpdater extends DefaultViewUpdater
+        implements CardSliderLayoutManager.ViewUpdater.TransformTargetResolver<CardsUpdater.Card> {
+
+    /**
+     * Child views of a card, resolved once per card.
+     */
+    static class Card {
+        final CardView card;
+        final View imageView;
+        final View alphaView;
+
+        Card(@NonNull CardView card) {
+            this.card = card;
+            this.imageView = card.getChildAt(0);
+            this.alphaView = card.getChildAt(1);
+        }
+    }
+
+    /**
+     * Number of compat elevation levels of top cards, between zero and {@link #Z_CENTER_1}.
+     * <p>
+     * Before Lollipop CardView draws its shadow from bitmaps, which are rebuilt along with card
+     * padding on every elevation change. So elevation of top cards is snapped to a few levels,
+     * and set only when level of the card changes, instead of changing on every scrolled frame.
+     */
+    private static final int COMPAT_TOP_ELEVATION_LEVELS = 3;
+
+    @NonNull
+    @Override
+    public Card resolveTransformTarget(@NonNull View view) {
+        return new Card((CardView) view);
+    }
 
     @Override
     public void updateView(@NonNull View view, float position) {
+        updateView(view, resolveTransformTarget(view), position);
+    }
+
+    @Override
+    public void updateView(@NonNull View view, @NonNull Card target, float position) {
         super.updateView(view, position);
 
-        final CardView card = ((CardView)view);
-        final View alphaView = card.getChildAt(1);
-        final View imageView = card.getChildAt(0);
+        final CardView card = target.card;
+        final View alphaView = target.alphaView;
+        final View imageView = target.imageView;
 
         if (position < 0) {
             final float alpha = ViewCompat.getAlpha(view);
@@ -29,14 +66,15 @@ public class CardsUpdater extends DefaultViewUpdater {
             ViewCompat.setAlpha(imageView, 1f);
         }
 
-        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
-            final CardSliderLayoutManager lm =  getLayoutManager();
-            final float ratio = (float) lm.getDecoratedLeft(view) / lm.getActiveCardTop();
-
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP
+                && getLayoutManager().getQualityLevel() < AdaptiveQualityHelper.QUALITY_NO_ELEVATION)
+        {
             final float z;
 
             if (position < 0) {
-                z = Z_CENTER_1 * ratio;
+                final CardSliderLayoutManager lm = getLayoutManager();
+                final float ratio = Math.max(0f, Math.min(1f, (float) lm.getDecoratedTop(view) / lm.getActiveCardTop()));
+                z = (float) Math.round(ratio * COMPAT_TOP_ELEVATION_LEVELS) * Z_CENTER_1 / COMPAT_TOP_ELEVATION_LEVELS;
             } else if (position < 0.5f) {
                 z = Z_CENTER_1;
             } else if (position < 1f) {
@@ -45,7 +83,9 @@ public class CardsUpdater extends DefaultViewUpdater {
                 z = Z_BOTTOM;
             }
 
-            card.setCardElevation(Math.max(0, z));
+            if (card.getCardElevation() != z) {
+                card.setCardElevation(z);
+            }
         }
     }
 
@@ -0,0 +1,174 @@
+package com.ramotion.cardslider.examples.simple.cards;
+
+import android.graphics.Bitmap;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+
+import com.ramotion.cardslider.CardSliderLayoutManager;
+import com.ramotion.cardslider.examples.simple.utils.DecodeBitmapTask;
+
+/**
+ * Warms bitmap cache for the next cards in the direction of scrolling, and for the details
+ * screen image of the active card when scrolling stops. All decodes are low priority
+ * and are cancelled as soon as scroll direction changes.
+ */
+public class ImagePrefetcher extends RecyclerView.OnScrollListener {
+
+    private static final int DEFAULT_PREFETCH_COUNT = 3;
+
+    public interface ContentProvider {
+        @DrawableRes int getCardImage(int position);
+        @DrawableRes int getDetailsImage(int position);
+    }
+
+    private final SparseArray<Prefetch> prefetches = new SparseArray<>();
+    private final ContentProvider contentProvider;
+    private final int prefetchCount;
+
+    private int detailsWidth;
+    private int detailsHeight;
+    private Prefetch detailsPrefetch;
+
+    private int direction;
+
+    private class Prefetch implements DecodeBitmapTask.Listener {
+        final int position;
+        final DecodeBitmapTask task;
+
+        Prefetch(RecyclerView recyclerView, int position, @DrawableRes int resId, int width, int height) {
+            this.position = position;
+            this.task = new DecodeBitmapTask(recyclerView.getResources(), resId, width, height, this)
+                    .setPosition(position)
+                    .setPrefetch(true);
+        }
+
+        void cancel() {
+            task.cancel();
+        }
+
+        @Override
+        public void onPostExecuted(Bitmap bitmap) {
+            if (bitmap != null) {
+                // Bitmap is kept by cache
+                DecodeBitmapTask.releaseBitmap(bitmap);
+            }
+
+            if (prefetches.get(position) == this) {
+                prefetches.remove(position);
+            } else if (detailsPrefetch == this) {
+                detailsPrefetch = null;
+            }
+        }
+    }
+
+    public ImagePrefetcher(@NonNull ContentProvider contentProvider) {
+        this(contentProvider, DEFAULT_PREFETCH_COUNT);
+    }
+
+    /**
+     * @param prefetchCount Number of cards to prefetch ahead of active card.
+     */
+    public ImagePrefetcher(@NonNull ContentProvider contentProvider, int prefetchCount) {
+        this.contentProvider = contentProvider;
+        this.prefetchCount = prefetchCount;
+    }
+
+    /**
+     * Sets size of the details screen image. Details image is not prefetched if not set.
+     */
+    public void setDetailsSize(int width, int height) {
+        this.detailsWidth = width;
+        this.detailsHeight = height;
+    }
+
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        if (dy == 0) {
+            return;
+        }
+
+        final int newDirection = dy > 0 ? 1 : -1;
+        if (newDirection != direction) {
+            direction = newDirection;
+            cancelAll();
+        }
+
+        final CardSliderLayoutManager lm = (CardSliderLayoutManager) recyclerView.getLayoutManager();
+        final int activePos = lm.getActiveCardPosition();
+        if (activePos == RecyclerView.NO_POSITION) {
+            return;
+        }
+
+        final int width = lm.getCardWidth();
+        final int height = lm.getCardHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        // Drop prefetches left behind active card
+        for (int i = prefetches.size() - 1; i >= 0; i--) {
+            final int distance = (prefetches.keyAt(i) - activePos) * direction;
+            if (distance <= 0 || distance > prefetchCount) {
+                prefetches.valueAt(i).cancel();
+                prefetches.removeAt(i);
+            }
+        }
+
+        final int itemCount = lm.getItemCount();
+        for (int i = 1; i <= prefetchCount; i++) {
+            final int pos = activePos + i * direction;
+            if (pos < 0 || pos >= itemCount) {
+                break;
+            }
+
+            if (prefetches.get(pos) == null) {
+                final Prefetch prefetch = new Prefetch(recyclerView, pos, contentProvider.getCardImage(pos), width, height);
+                prefetches.put(pos, prefetch);
+                prefetch.task.execute();
+            }
+        }
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        if (newState != RecyclerView.SCROLL_STATE_IDLE) {
+            cancelDetails();
+            return;
+        }
+
+        if (detailsWidth == 0 || detailsHeight == 0) {
+            return;
+        }
+
+        final int activePos = ((CardSliderLayoutManager) recyclerView.getLayoutManager()).getActiveCardPosition();
+        if (activePos == RecyclerView.NO_POSITION) {
+            return;
+        }
+
+        cancelDetails();
+        detailsPrefetch = new Prefetch(recyclerView, activePos,
+                contentProvider.getDetailsImage(activePos), detailsWidth, detailsHeight);
+        detailsPrefetch.task.execute();
+    }
+
+    /**
+     * Cancels all pending prefetches.
+     */
+    public void cancelAll() {
+        for (int i = 0, cnt = prefetches.size(); i < cnt; i++) {
+            prefetches.valueAt(i).cancel();
+        }
+        prefetches.clear();
+        cancelDetails();
+    }
+
+    private void cancelDetails() {
+        if (detailsPrefetch != null) {
+            detailsPrefetch.cancel();
+            detailsPrefetch = null;
+        }
+    }
+
+}
@@ -6,18 +6,62 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import com.ramotion.cardslider.CardSliderLayoutManager;
 import com.ramotion.cardslider.examples.simple.R;
 
+import java.util.List;
+
 public class SliderAdapter extends RecyclerView.Adapter<SliderCard> {
 
+    /**
+     * Payload of partial bind which changes only image quality. Holder of the same item is reused
+     * by item animator, and card keeps showing its current bitmap until the new one is decoded.
+     */
+    public static final Object PAYLOAD_IMAGE_QUALITY = new Object();
+
+    /**
+     * Payload of partial bind which changes only card size, sent when layout manager resized
+     * attached cards without rebinding them.
+     */
+    public static final Object PAYLOAD_CARD_SIZE = new Object();
+
     private final int count;
     private final int[] content;
     private final View.OnClickListener listener;
 
+    private boolean lowResolution;
+    private int createdViewHolderCount;
+    private RecyclerView recyclerView;
+
     public SliderAdapter(int[] content, int count, View.OnClickListener listener) {
         this.content = content;
         this.count = count;
         this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+
+        final RecyclerView.LayoutManager lm = recyclerView.getLayoutManager();
+        if (lm instanceof CardSliderLayoutManager) {
+            ((CardSliderLayoutManager) lm).setOnCardSizeChangeListener(new CardSliderLayoutManager.OnCardSizeChangeListener() {
+                @Override
+                public void onCardSizeChanged(int cardWidth, int cardHeight) {
+                    notifyItemRangeChanged(0, getItemCount(), PAYLOAD_CARD_SIZE);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        final RecyclerView.LayoutManager lm = recyclerView.getLayoutManager();
+        if (lm instanceof CardSliderLayoutManager) {
+            ((CardSliderLayoutManager) lm).setOnCardSizeChangeListener(null);
+        }
+        this.recyclerView = null;
     }
 
     @Override
@@ -35,12 +79,29 @@ public class SliderAdapter extends RecyclerView.Adapter<SliderCard> {
             });
         }
 
+        createdViewHolderCount++;
         return new SliderCard(view);
     }
 
     @Override
     public void onBindViewHolder(SliderCard holder, int position) {
-        holder.setContent(content[position % content.length]);
+        holder.setContent(getContent(position), position, getCardWidth(), getCardHeight(), lowResolution);
+    }
+
+    @Override
+    public void onBindViewHolder(SliderCard holder, int position, List<Object> payloads) {
+        if (payloads.isEmpty() || !isImagePayloads(payloads)
+                || !holder.reloadContent(position, getCardWidth(), getCardHeight(), lowResolution))
+        {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        // The same image repeats in content, so its repetition number tells the items apart
+        final int resId = content[position % content.length];
+        return ((long) (position / content.length) << 32) | (resId & 0xFFFFFFFFL);
     }
 
     @Override
@@ -48,9 +109,61 @@ public class SliderAdapter extends RecyclerView.Adapter<SliderCard> {
         holder.clearContent();
     }
 
+    /**
+     * Switches newly bound cards to lower resolution images, e.g. when slider runs out of frame budget.
+     */
+    public void setLowResolution(boolean lowResolution) {
+        if (this.lowResolution == lowResolution) {
+            return;
+        }
+
+        this.lowResolution = lowResolution;
+        if (!lowResolution) {
+            // Upgrade bound cards in place, without rebinding them from scratch
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_IMAGE_QUALITY);
+        }
+    }
+
+    /**
+     * @return number of cards inflated by this adapter.
+     */
+    public int getCreatedViewHolderCount() {
+        return createdViewHolderCount;
+    }
+
     @Override
     public int getItemCount() {
         return count;
     }
 
+    /**
+     * Cards are bound by layout manager while laying out, so card size is known already.
+     */
+    private int getCardWidth() {
+        final CardSliderLayoutManager lm = getLayoutManager();
+        return lm != null ? lm.getCardWidth() : 0;
+    }
+
+    private int getCardHeight() {
+        final CardSliderLayoutManager lm = getLayoutManager();
+        return lm != null ? lm.getCardHeight() : 0;
+    }
+
+    private CardSliderLayoutManager getLayoutManager() {
+        return recyclerView != null ? (CardSliderLayoutManager) recyclerView.getLayoutManager() : null;
+    }
+
+    private static boolean isImagePayloads(List<Object> payloads) {
+        for (Object payload : payloads) {
+            if (payload != PAYLOAD_IMAGE_QUALITY && payload != PAYLOAD_CARD_SIZE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int getContent(int position) {
+        return content[position % content.length];
+    }
+
 }
@@ -1,60 +1,186 @@
 package com.ramotion.cardslider.examples.simple.cards;
 
+import android.content.res.Resources;
 import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
 import android.support.annotation.DrawableRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.v7.widget.RecyclerView;
 import android.view.View;
-import android.view.ViewTreeObserver;
 import android.widget.ImageView;
 
+import com.ramotion.cardslider.CardSliderLayoutManager;
 import com.ramotion.cardslider.examples.simple.R;
 import com.ramotion.cardslider.examples.simple.utils.DecodeBitmapTask;
+import com.ramotion.cardslider.examples.simple.utils.PlaceholderIndex;
 
 public class SliderCard extends RecyclerView.ViewHolder implements DecodeBitmapTask.Listener {
 
-    private static int viewWidth = 0;
-    private static int viewHeight = 0;
+    private static final int LOW_RESOLUTION_FACTOR = 2;
 
     private final ImageView imageView;
+    private final ColorDrawable placeholder = new ColorDrawable();
 
     private DecodeBitmapTask task;
+    private Bitmap bitmap;
+
+    private int contentResId;
+    private int contentWidth;
+    private int contentHeight;
+    private boolean contentLowResolution;
 
     public SliderCard(View itemView) {
         super(itemView);
         imageView = (ImageView) itemView.findViewById(R.id.image);
     }
 
-    void setContent(@DrawableRes final int resId) {
-        if (viewWidth == 0) {
-            itemView.getViewTreeObserver().addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-                @Override
-                public void onGlobalLayout() {
-                    itemView.getViewTreeObserver().removeOnGlobalLayoutListener(this);
+    /**
+     * Starts decoding of card image, before card is laid out. Nothing is decoded if card already
+     * shows or loads the same image at the same size. Card keeps showing current bitmap of the same
+     * resource while another size of it is decoded, otherwise it shows a placeholder.
+     *
+     * @param resId  Image resource, or {@code 0} for item which is not loaded yet.
+     * @param width  Card width, see {@link CardSliderLayoutManager#getCardWidth()}.
+     * @param height Card height, see {@link CardSliderLayoutManager#getCardHeight()}.
+     */
+    void setContent(@DrawableRes int resId, int position, int width, int height, boolean lowResolution) {
+        final boolean sameResource = resId == contentResId && (bitmap != null || task != null);
+        if (sameResource && width == contentWidth && height == contentHeight && lowResolution == contentLowResolution) {
+            return;
+        }
 
-                    viewWidth = itemView.getWidth();
-                    viewHeight = itemView.getHeight();
-                    loadBitmap(resId);
-                }
-            });
-        } else {
-            loadBitmap(resId);
+        if (!sameResource) {
+            showPlaceholder(resId);
+        }
+
+        if (resId == 0) {
+            // Item is rebound when it is loaded
+            contentResId = 0;
+            return;
+        }
+
+        contentResId = resId;
+        contentWidth = width;
+        contentHeight = height;
+        contentLowResolution = lowResolution;
+
+        if (width > 0 && height > 0) {
+            loadBitmap(resId, position, width, height, lowResolution);
         }
     }
 
+    /**
+     * Reloads image which card shows or loads at another size or quality, without asking adapter
+     * for content. Card keeps showing current bitmap until the new one is decoded.
+     *
+     * @return {@code false} if card has no content to reload.
+     */
+    boolean reloadContent(int position, int width, int height, boolean lowResolution) {
+        if (contentResId == 0) {
+            return false;
+        }
+
+        setContent(contentResId, position, width, height, lowResolution);
+        return true;
+    }
+
+    /**
+     * @return bitmap currently shown by card, or {@code null} if it's not loaded yet.
+     */
+    @Nullable
+    public Bitmap getBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * Hands reference to the shown bitmap over to the caller, card shows nothing afterwards.
+     *
+     * @return bitmap to be released by the caller, or {@code null} if card has no bitmap.
+     */
+    @Nullable
+    Bitmap takeBitmap() {
+        final Bitmap taken = bitmap;
+        imageView.setImageDrawable(null);
+        bitmap = null;
+        return taken;
+    }
+
     void clearContent() {
+        cancelTask();
+        setBitmap(null);
+        contentResId = 0;
+    }
+
+    /**
+     * Replaces previous bitmap by placeholder color of resource, if it is known.
+     */
+    private void showPlaceholder(@DrawableRes int resId) {
+        cancelTask();
+        setBitmap(null);
+
+        final PlaceholderIndex index = PlaceholderIndex.getInstance();
+        final int color = index != null ? index.getColor(resId) : Color.TRANSPARENT;
+        if (color != Color.TRANSPARENT) {
+            placeholder.setColor(color);
+            imageView.setImageDrawable(placeholder);
+        }
+    }
+
+    private void cancelTask() {
         if (task != null) {
-            task.cancel(true);
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void setBitmap(Bitmap bitmap) {
+        imageView.setImageBitmap(bitmap);
+
+        if (this.bitmap != null) {
+            DecodeBitmapTask.releaseBitmap(this.bitmap);
+        }
+        this.bitmap = bitmap;
+    }
+
+    private void loadBitmap(@DrawableRes int resId, int position, int width, int height, boolean lowResolution) {
+        cancelTask();
+
+        task = createTask(itemView.getResources(), resId, width, height, lowResolution, this);
+        task.setPosition(position).execute();
+    }
+
+    /**
+     * @return not executed request of the content card shows or loads, with another listener,
+     * or {@code null} if card has no content.
+     */
+    @Nullable
+    DecodeBitmapTask createContentRequest(@NonNull Resources resources, @NonNull DecodeBitmapTask.Listener listener) {
+        if (contentResId == 0 || contentWidth <= 0 || contentHeight <= 0) {
+            return null;
         }
+
+        return createTask(resources, contentResId, contentWidth, contentHeight, contentLowResolution, listener)
+                .setPosition(getAdapterPosition());
     }
 
-    private void loadBitmap(@DrawableRes int resId) {
-        task = new DecodeBitmapTask(itemView.getResources(), resId, viewWidth, viewHeight, this);
-        task.execute();
+    private static DecodeBitmapTask createTask(Resources resources, @DrawableRes int resId,
+                                               int width, int height, boolean lowResolution,
+                                               DecodeBitmapTask.Listener listener)
+    {
+        if (lowResolution) {
+            return new DecodeBitmapTask(resources, resId,
+                    width / LOW_RESOLUTION_FACTOR, height / LOW_RESOLUTION_FACTOR, false, listener);
+        } else {
+            return new DecodeBitmapTask(resources, resId, width, height, listener);
+        }
     }
 
     @Override
     public void onPostExecuted(Bitmap bitmap) {
-        imageView.setImageBitmap(bitmap);
+        task = null;
+        setBitmap(bitmap);
     }
 
 }
\ No newline at end of file
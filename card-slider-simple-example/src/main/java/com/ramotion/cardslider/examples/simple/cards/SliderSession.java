@@ -0,0 +1,186 @@
+package com.ramotion.cardslider.examples.simple.cards;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.os.Bundle;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.annotation.NonNull;
+import android.support.v4.app.Fragment;
+import android.support.v4.app.FragmentActivity;
+import android.support.v4.app.FragmentManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.ViewTreeObserver;
+
+import com.ramotion.cardslider.examples.simple.utils.DecodeBitmapTask;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Slider state which survives activity recreation on configuration change, kept by a retained
+ * headless fragment.
+ * <p>
+ * Session owns {@link ImagePrefetcher}, and pins decode requests of cards which were on screen
+ * when the old activity was destroyed: in-flight decodes are not cancelled with old cards,
+ * and their bitmaps stay acquired until the new cards are bound. Views can't outlive the activity
+ * context they were inflated with, so instead of retaining them the session remembers how many
+ * cards were inflated, and the new activity inflates them into the pool when main thread is idle.
+ */
+public class SliderSession extends Fragment implements DecodeBitmapTask.Listener {
+
+    private static final String TAG = "SliderSession";
+
+    private final List<DecodeBitmapTask> pinnedTasks = new ArrayList<>();
+    private final List<Bitmap> pinnedBitmaps = new ArrayList<>();
+
+    private ImagePrefetcher imagePrefetcher;
+    private int cardCount;
+
+    /**
+     * @return session of activity, created on the first call.
+     */
+    @NonNull
+    public static SliderSession obtain(@NonNull FragmentActivity activity) {
+        final FragmentManager fm = activity.getSupportFragmentManager();
+        SliderSession session = (SliderSession) fm.findFragmentByTag(TAG);
+        if (session == null) {
+            session = new SliderSession();
+            fm.beginTransaction().add(session, TAG).commitNow();
+        }
+        return session;
+    }
+
+    @Override
+    public void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setRetainInstance(true);
+    }
+
+    /**
+     * Called when activity is finally destroyed, not on configuration change.
+     */
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+
+        if (imagePrefetcher != null) {
+            imagePrefetcher.cancelAll();
+        }
+        releasePins();
+    }
+
+    /**
+     * @param contentProvider Used when prefetcher is created. Must not reference activity,
+     *                        since prefetcher outlives it.
+     * @return prefetcher of this session.
+     */
+    @NonNull
+    public ImagePrefetcher getImagePrefetcher(@NonNull ImagePrefetcher.ContentProvider contentProvider) {
+        if (imagePrefetcher == null) {
+            imagePrefetcher = new ImagePrefetcher(contentProvider);
+        }
+        return imagePrefetcher;
+    }
+
+    /**
+     * Pins content of attached cards: their bitmap references are handed over to the session,
+     * and their in-flight decodes are shared. Adapter is detached afterwards, so all cards of
+     * the outgoing activity are recycled and release what they hold. Call it from
+     * {@code onDestroy()} of activity which is changing configuration.
+     */
+    public void save(@NonNull RecyclerView recyclerView, @NonNull SliderAdapter adapter) {
+        releasePins();
+
+        final Resources resources = recyclerView.getContext().getApplicationContext().getResources();
+        for (int i = 0, cnt = recyclerView.getChildCount(); i < cnt; i++) {
+            final RecyclerView.ViewHolder holder = recyclerView.getChildViewHolder(recyclerView.getChildAt(i));
+            if (!(holder instanceof SliderCard)) {
+                continue;
+            }
+
+            final SliderCard card = (SliderCard) holder;
+            final Bitmap bitmap = card.takeBitmap();
+            if (bitmap != null) {
+                pinnedBitmaps.add(bitmap);
+                continue;
+            }
+
+            // Shares in-flight decode of the card
+            final DecodeBitmapTask task = card.createContentRequest(resources, this);
+            if (task != null) {
+                pinnedTasks.add(task);
+                task.execute();
+            }
+        }
+
+        cardCount = Math.max(cardCount, adapter.getCreatedViewHolderCount());
+
+        recyclerView.setAdapter(null);
+    }
+
+    /**
+     * Restores session into slider of recreated activity: releases pins once new cards are bound,
+     * and inflates cards of previous activity into the pool when main thread is idle.
+     */
+    public void restore(@NonNull final RecyclerView recyclerView, @NonNull final SliderAdapter adapter) {
+        recyclerView.getViewTreeObserver().addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
+            @Override
+            public void onGlobalLayout() {
+                recyclerView.getViewTreeObserver().removeOnGlobalLayoutListener(this);
+                // New cards have been bound and took their own references
+                releasePins();
+            }
+        });
+
+        if (cardCount == 0) {
+            return;
+        }
+
+        final RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+        final int viewType = 0;
+        pool.setMaxRecycledViews(viewType, Math.max(cardCount, 5));
+
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                if (recyclerView.getAdapter() != adapter
+                        || adapter.getCreatedViewHolderCount() >= cardCount)
+                {
+                    return false;
+                }
+
+                // One card per idle pass, so input is not delayed
+                pool.putRecycledView(adapter.createViewHolder(recyclerView, viewType));
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public void onPostExecuted(Bitmap bitmap) {
+        if (bitmap == null) {
+            return;
+        }
+
+        if (pinnedTasks.isEmpty()) {
+            // Pins are released already
+            DecodeBitmapTask.releaseBitmap(bitmap);
+        } else {
+            pinnedBitmaps.add(bitmap);
+        }
+    }
+
+    private void releasePins() {
+        for (DecodeBitmapTask task : pinnedTasks) {
+            task.cancel();
+        }
+        pinnedTasks.clear();
+
+        for (Bitmap bitmap : pinnedBitmaps) {
+            DecodeBitmapTask.releaseBitmap(bitmap);
+        }
+        pinnedBitmaps.clear();
+    }
+
+}
@@ -1,45 +1,259 @@
 package com.ramotion.cardslider.examples.simple.utils;
 
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.res.Configuration;
 import android.graphics.Bitmap;
-import android.util.LruCache;
+import android.os.Build;
+import android.support.annotation.NonNull;
 
 /**
- * LruCache for caching background bitmaps for {@link DecodeBitmapTask}.
+ * LRU cache for caching background bitmaps for {@link DecodeBitmapTask}.
+ * <p>
+ * Entries are keyed by primitive (resource, width bucket, height bucket, config) tuple,
+ * so several resolutions and configs of the same image can be cached at once. Size of entries
+ * is counted by actual allocation, see {@link DecodePolicy} for configs which take less memory.
+ * Cache keeps a {@link BitmapPool} reference to cached bitmaps, evicted bitmaps are pooled
+ * when no card displays them.
+ * <p>
+ * Cache gives memory back on {@link ComponentCallbacks2#onTrimMemory(int)}: first entries far
+ * from the active card, then everything outside of the visible window, and everything on
+ * critical pressure. Register it by {@link #init(Context)}. Keys, LRU order and size accounting
+ * are kept by {@link CacheEntries}.
  */
-class BackgroundBitmapCache {
-    private LruCache<Integer, Bitmap> mBackgroundsCache;
+public class BackgroundBitmapCache implements ComponentCallbacks2 {
+
+    /** Entries farther than this from the active card are trimmed first. */
+    private static final int FAR_DISTANCE = 4;
+    /** Entries within this distance from the active card are the visible window. */
+    private static final int VISIBLE_DISTANCE = 2;
 
     private static BackgroundBitmapCache instance;
 
-    public static BackgroundBitmapCache getInstance() {
+    private final CacheEntries<Bitmap> entries = new CacheEntries<>(new CacheEntries.OnRemovedListener<Bitmap>() {
+        @Override
+        public void onRemoved(@NonNull Bitmap bitmap) {
+            BitmapPool.getInstance().release(bitmap);
+        }
+    });
+
+    private int maxSize;
+
+    private int activePosition;
+
+    private int hitCount;
+    private int missCount;
+    private int evictionCount;
+    private int trimCount;
+    private int trimmedSize;
+
+    public static synchronized BackgroundBitmapCache getInstance() {
         if (instance == null) {
             instance = new BackgroundBitmapCache();
-            instance.init();
+            instance.maxSize = (int) (Runtime.getRuntime().maxMemory() / 1024 / 5);
         }
         return instance;
     }
 
-    private void init() {
-        final int maxMemory = (int) (Runtime.getRuntime().maxMemory() / 1024);
-        final int cacheSize = maxMemory / 5;
+    /**
+     * Sizes cache by memory available for bitmaps on this device and registers it for
+     * memory trim callbacks.
+     */
+    public static void init(@NonNull Context context) {
+        final BackgroundBitmapCache cache = getInstance();
+        final Context appContext = context.getApplicationContext();
 
-        mBackgroundsCache = new LruCache<Integer, Bitmap>(cacheSize) {
-            @Override
-            protected int sizeOf(Integer key, Bitmap bitmap) {
-                // The cache size will be measured in kilobytes rather than number of items.
-                return bitmap.getByteCount() / 1024;
+        final int maxSize = computeMaxSize(appContext);
+        synchronized (cache) {
+            if (cache.maxSize != maxSize) {
+                cache.maxSize = maxSize;
+                cache.evictionCount += cache.entries.trimToSize(maxSize);
             }
-        };
+        }
+
+        appContext.unregisterComponentCallbacks(cache);
+        appContext.registerComponentCallbacks(cache);
+    }
+
+    /**
+     * @return cache size in kilobytes.
+     */
+    private static int computeMaxSize(Context context) {
+        final ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        final boolean largeHeap = (context.getApplicationInfo().flags & ApplicationInfo.FLAG_LARGE_HEAP) != 0;
+        final int memoryClassKb = (largeHeap ? am.getLargeMemoryClass() : am.getMemoryClass()) * 1024;
+
+        int result;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            // Bitmap pixels live in native memory, Java heap limit doesn't bound them.
+            // Still keep them proportional to the device class, not to the whole RAM.
+            final ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+            am.getMemoryInfo(memoryInfo);
+            result = (int) Math.min(memoryInfo.totalMem / 1024 / 32, memoryClassKb / 3);
+        } else {
+            // Bitmap pixels are allocated in Java heap.
+            result = (int) Math.min(Runtime.getRuntime().maxMemory() / 1024, memoryClassKb) / 5;
+        }
+
+        if (am.isLowRamDevice()) {
+            result /= 2;
+        }
+        return result;
+    }
+
+    /**
+     * Sets active card position, used to find far entries on memory trim.
+     */
+    public synchronized void setActivePosition(int position) {
+        activePosition = position;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_MODERATE) {
+            trim(-1);
+            BitmapPool.getInstance().clear();
+        } else if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            trim(VISIBLE_DISTANCE);
+            BitmapPool.getInstance().clear();
+        } else if (level >= TRIM_MEMORY_UI_HIDDEN || level == TRIM_MEMORY_RUNNING_LOW) {
+            trim(FAR_DISTANCE);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        onTrimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    /**
+     * Removes entries farther than {@code distance} from the active card,
+     * entries without position (details images) are removed too. Negative distance removes all.
+     */
+    private synchronized void trim(int distance) {
+        final int sizeBefore = entries.size();
+        entries.trim(activePosition, distance);
+
+        trimCount++;
+        trimmedSize += sizeBefore - entries.size();
+    }
+
+    public synchronized int getHitCount() {
+        return hitCount;
     }
 
-    public void addBitmapToBgMemoryCache(Integer key, Bitmap bitmap) {
-        if (getBitmapFromBgMemCache(key) == null) {
-            mBackgroundsCache.put(key, bitmap);
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return number of entries evicted because cache exceeded its size.
+     */
+    public synchronized int getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return number of memory trims.
+     */
+    public synchronized int getTrimCount() {
+        return trimCount;
+    }
+
+    /**
+     * @return total size of entries removed by memory trims, in kilobytes.
+     */
+    public synchronized int getTrimmedSize() {
+        return trimmedSize;
+    }
+
+    /**
+     * @return current size in kilobytes.
+     */
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * @return maximum size in kilobytes.
+     */
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BackgroundBitmapCache[size=" + entries.size() + "KB, maxSize=" + maxSize + "KB, hits=" + hitCount
+                + ", misses=" + missCount + ", evictions=" + evictionCount
+                + ", trims=" + trimCount + ", trimmed=" + trimmedSize + "KB]";
+    }
+
+    static long keyOf(int resId, int width, int height, Bitmap.Config config) {
+        return CacheEntries.keyOf(resId, width, height, configIndexOf(config));
+    }
+
+    /**
+     * @return key of exact size, not of size bucket. Dimensions must fit 14 bits.
+     */
+    static long exactKeyOf(int resId, int width, int height, Bitmap.Config config) {
+        return CacheEntries.exactKeyOf(resId, width, height, configIndexOf(config));
+    }
+
+    /**
+     * @return bitmap decoded for the same size bucket and config, or {@code null}.
+     * Returned bitmap is acquired for the caller, see {@link BitmapPool#release(Bitmap)}.
+     */
+    public synchronized Bitmap get(int resId, int width, int height, Bitmap.Config config, int position) {
+        final Bitmap bitmap = entries.get(resId, width, height, configIndexOf(config), position);
+        if (bitmap == null) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        BitmapPool.getInstance().acquire(bitmap);
+        return bitmap;
+    }
+
+    /**
+     * @return the smallest cached variant of resource with the same config, that is not
+     * smaller than requested size, or {@code null}.
+     * Returned bitmap is acquired for the caller, see {@link BitmapPool#release(Bitmap)}.
+     */
+    public synchronized Bitmap getLarger(int resId, int width, int height, Bitmap.Config config, int position) {
+        final Bitmap bitmap = entries.getLarger(resId, width, height, configIndexOf(config), position);
+        if (bitmap != null) {
+            BitmapPool.getInstance().acquire(bitmap);
+        }
+        return bitmap;
+    }
+
+    public synchronized void put(int resId, int width, int height, Bitmap.Config config, Bitmap bitmap, int position) {
+        final int entrySize = Math.max(1, sizeOf(bitmap) / 1024);
+        if (!entries.put(resId, width, height, configIndexOf(config), bitmap, entrySize, position)) {
+            return;
         }
+
+        BitmapPool.getInstance().acquire(bitmap);
+        evictionCount += entries.trimToSize(maxSize);
+    }
+
+    /**
+     * @return memory held by bitmap in bytes. Reused bitmap may hold more than its pixels need,
+     * RGB_565 bitmap holds half of ARGB_8888 one, so more of them fit the same budget.
+     */
+    private static int sizeOf(Bitmap bitmap) {
+        return bitmap.getAllocationByteCount();
     }
 
-    public Bitmap getBitmapFromBgMemCache(Integer key) {
-        return mBackgroundsCache.get(key);
+    private static int configIndexOf(Bitmap.Config config) {
+        return config == null ? 0 : config.ordinal() + 1;
     }
 
 }
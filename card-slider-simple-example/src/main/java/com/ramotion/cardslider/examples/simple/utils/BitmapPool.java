@@ -0,0 +1,158 @@
+package com.ramotion.cardslider.examples.simple.utils;
+
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pool of mutable bitmaps for reuse by {@link android.graphics.BitmapFactory.Options#inBitmap}
+ * and as drawing output, grouped by allocation size.
+ * <p>
+ * Bitmaps are reference counted: {@link BackgroundBitmapCache} and every holder displaying a bitmap
+ * keep a reference. Bitmap comes to the pool when its last reference is released, e.g. on cache
+ * eviction after the card showing it was recycled.
+ */
+class BitmapPool {
+
+    private static BitmapPool instance;
+
+    private final TreeMap<Integer, ArrayDeque<Bitmap>> bitmaps = new TreeMap<>();
+    private final Map<Bitmap, int[]> references = new IdentityHashMap<>();
+
+    private final int maxSize;
+    private int size;
+
+    public static synchronized BitmapPool getInstance() {
+        if (instance == null) {
+            instance = new BitmapPool((int) (Runtime.getRuntime().maxMemory() / 16));
+        }
+        return instance;
+    }
+
+    private BitmapPool(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return pooled bitmap which allocation fits at least {@code byteCount} bytes, to be used as
+     * {@link android.graphics.BitmapFactory.Options#inBitmap}, or {@code null}.
+     */
+    @Nullable
+    public synchronized Bitmap getReusable(int byteCount) {
+        final Map.Entry<Integer, ArrayDeque<Bitmap>> entry = bitmaps.ceilingEntry(byteCount);
+        if (entry == null) {
+            return null;
+        }
+
+        final ArrayDeque<Bitmap> deque = entry.getValue();
+        final Bitmap bitmap = deque.poll();
+        if (deque.isEmpty()) {
+            bitmaps.remove(entry.getKey());
+        }
+
+        size -= entry.getKey();
+        return bitmap;
+    }
+
+    /**
+     * @return cleared mutable bitmap of requested size, reconfigured pooled bitmap if available.
+     */
+    @NonNull
+    public Bitmap get(int width, int height, @NonNull Bitmap.Config config) {
+        final Bitmap bitmap = getReusable(width * height * bytesPerPixel(config));
+        if (bitmap == null) {
+            return Bitmap.createBitmap(width, height, config);
+        }
+
+        try {
+            bitmap.reconfigure(width, height, config);
+        } catch (IllegalArgumentException e) {
+            bitmap.recycle();
+            return Bitmap.createBitmap(width, height, config);
+        }
+
+        bitmap.eraseColor(0);
+        return bitmap;
+    }
+
+    /**
+     * Puts bitmap which is not referenced anywhere into the pool.
+     */
+    public synchronized void put(@NonNull Bitmap bitmap) {
+        if (!bitmap.isMutable() || bitmap.isRecycled() || references.containsKey(bitmap)) {
+            return;
+        }
+
+        final int byteCount = bitmap.getAllocationByteCount();
+        if (byteCount > maxSize / 2) {
+            return;
+        }
+
+        ArrayDeque<Bitmap> deque = bitmaps.get(byteCount);
+        if (deque == null) {
+            deque = new ArrayDeque<>();
+            bitmaps.put(byteCount, deque);
+        }
+        deque.add(bitmap);
+        size += byteCount;
+
+        while (size > maxSize) {
+            final Map.Entry<Integer, ArrayDeque<Bitmap>> smallest = bitmaps.firstEntry();
+            final Bitmap evicted = smallest.getValue().poll();
+            if (smallest.getValue().isEmpty()) {
+                bitmaps.remove(smallest.getKey());
+            }
+            size -= smallest.getKey();
+            evicted.recycle();
+        }
+    }
+
+    public synchronized void acquire(@NonNull Bitmap bitmap) {
+        final int[] count = references.get(bitmap);
+        if (count == null) {
+            references.put(bitmap, new int[] {1});
+        } else {
+            count[0]++;
+        }
+    }
+
+    /**
+     * Releases reference to bitmap, bitmap is pooled when no references left.
+     */
+    public synchronized void release(@NonNull Bitmap bitmap) {
+        final int[] count = references.get(bitmap);
+        if (count == null) {
+            return;
+        }
+
+        if (--count[0] == 0) {
+            references.remove(bitmap);
+            put(bitmap);
+        }
+    }
+
+    public synchronized void clear() {
+        for (ArrayDeque<Bitmap> deque : bitmaps.values()) {
+            for (Bitmap bitmap : deque) {
+                bitmap.recycle();
+            }
+        }
+        bitmaps.clear();
+        size = 0;
+    }
+
+    static int bytesPerPixel(@NonNull Bitmap.Config config) {
+        switch (config) {
+            case ALPHA_8: return 1;
+            case RGB_565: return 2;
+            case ARGB_4444: return 2;
+            default: return 4;
+        }
+    }
+
+}
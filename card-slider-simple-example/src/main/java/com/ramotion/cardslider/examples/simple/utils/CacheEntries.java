@@ -0,0 +1,240 @@
+package com.ramotion.cardslider.examples.simple.utils;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.util.LongSparseArray;
+import android.support.v4.util.SparseArrayCompat;
+
+/**
+ * Entries of {@link BackgroundBitmapCache} without bitmap specifics: primitive keys, LRU order,
+ * size accounting, eviction and trims by distance from the active card.
+ * <p>
+ * Not thread safe, cache synchronizes access to it.
+ *
+ * @param <V> Value type.
+ */
+class CacheEntries<V> {
+
+    static final int NO_POSITION = -1;
+
+    private static final int BUCKET_SIZE = 32;
+    private static final int BUCKET_MASK = 0x3FFF;
+    private static final int CONFIG_MASK = 0xF;
+
+    interface OnRemovedListener<V> {
+        /**
+         * Called when value is evicted or trimmed.
+         */
+        void onRemoved(@NonNull V value);
+    }
+
+    private static class Entry<V> {
+        long key;
+        int resId;
+        int widthBucket;
+        int heightBucket;
+        int configIndex;
+        V value;
+        int size;
+        int position = NO_POSITION;
+
+        Entry<V> prev = this;
+        Entry<V> next = this;
+        Entry<V> nextVariant;
+    }
+
+    private final LongSparseArray<Entry<V>> entries = new LongSparseArray<>();
+    private final SparseArrayCompat<Entry<V>> variants = new SparseArrayCompat<>();
+
+    /** Least recently used entry is head.next, most recently used is head.prev. */
+    private final Entry<V> head = new Entry<>();
+
+    private final OnRemovedListener<V> listener;
+    private int size;
+
+    CacheEntries(@NonNull OnRemovedListener<V> listener) {
+        this.listener = listener;
+    }
+
+    static long keyOf(int resId, int width, int height, int configIndex) {
+        return exactKeyOf(resId, bucketOf(width), bucketOf(height), configIndex);
+    }
+
+    /**
+     * @return key of exact size, not of size bucket. Dimensions must fit 14 bits,
+     * config index must fit 4 bits.
+     */
+    static long exactKeyOf(int resId, int width, int height, int configIndex) {
+        return ((long) resId << 32)
+                | ((long) (width & BUCKET_MASK) << 18)
+                | ((height & BUCKET_MASK) << 4)
+                | (configIndex & CONFIG_MASK);
+    }
+
+    static int bucketOf(int dimension) {
+        return (dimension + BUCKET_SIZE - 1) / BUCKET_SIZE;
+    }
+
+    /**
+     * @return value of the same size bucket and config, or {@code null}. Found entry becomes
+     * the most recently used, at the given position.
+     */
+    @Nullable
+    V get(int resId, int width, int height, int configIndex, int position) {
+        final Entry<V> entry = entries.get(keyOf(resId, width, height, configIndex));
+        if (entry == null) {
+            return null;
+        }
+
+        entry.position = position;
+        moveToTail(entry);
+        return entry.value;
+    }
+
+    /**
+     * @return value of the smallest variant of resource with the same config, that is not
+     * smaller than requested size, or {@code null}.
+     */
+    @Nullable
+    V getLarger(int resId, int width, int height, int configIndex, int position) {
+        final int widthBucket = bucketOf(width);
+        final int heightBucket = bucketOf(height);
+
+        Entry<V> result = null;
+        for (Entry<V> entry = variants.get(resId); entry != null; entry = entry.nextVariant) {
+            if (entry.configIndex != configIndex || entry.widthBucket < widthBucket || entry.heightBucket < heightBucket) {
+                continue;
+            }
+            if (result == null || entry.size < result.size) {
+                result = entry;
+            }
+        }
+
+        if (result == null) {
+            return null;
+        }
+
+        result.position = position;
+        moveToTail(result);
+        return result.value;
+    }
+
+    /**
+     * Adds the most recently used entry, cache is not trimmed.
+     *
+     * @param size Entry size, at least 1.
+     * @return {@code false} if entry of the same key exists already.
+     */
+    boolean put(int resId, int width, int height, int configIndex, @NonNull V value, int size, int position) {
+        final long key = keyOf(resId, width, height, configIndex);
+        if (entries.get(key) != null) {
+            return false;
+        }
+
+        final Entry<V> entry = new Entry<>();
+        entry.key = key;
+        entry.resId = resId;
+        entry.widthBucket = bucketOf(width);
+        entry.heightBucket = bucketOf(height);
+        entry.configIndex = configIndex;
+        entry.value = value;
+        entry.size = size;
+        entry.position = position;
+
+        entries.put(key, entry);
+        entry.nextVariant = variants.get(resId);
+        variants.put(resId, entry);
+
+        entry.prev = head.prev;
+        entry.next = head;
+        head.prev.next = entry;
+        head.prev = entry;
+
+        this.size += size;
+        return true;
+    }
+
+    /**
+     * Evicts least recently used entries until size fits.
+     *
+     * @return number of evicted entries.
+     */
+    int trimToSize(int targetSize) {
+        int evicted = 0;
+        while (size > targetSize && head.next != head) {
+            remove(head.next);
+            evicted++;
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes entries farther than {@code distance} from the active card,
+     * entries without position are removed too. Negative distance removes all.
+     */
+    void trim(int activePosition, int distance) {
+        Entry<V> entry = head.next;
+        while (entry != head) {
+            final Entry<V> next = entry.next;
+            if (distance < 0 || entry.position == NO_POSITION
+                    || Math.abs(entry.position - activePosition) > distance)
+            {
+                remove(entry);
+            }
+            entry = next;
+        }
+    }
+
+    /**
+     * @return total size of entries.
+     */
+    int size() {
+        return size;
+    }
+
+    int count() {
+        return entries.size();
+    }
+
+    private void remove(Entry<V> entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = entry;
+        entry.next = entry;
+
+        entries.remove(entry.key);
+
+        Entry<V> variant = variants.get(entry.resId);
+        if (variant == entry) {
+            if (entry.nextVariant == null) {
+                variants.remove(entry.resId);
+            } else {
+                variants.put(entry.resId, entry.nextVariant);
+            }
+        } else {
+            while (variant != null && variant.nextVariant != entry) {
+                variant = variant.nextVariant;
+            }
+            if (variant != null) {
+                variant.nextVariant = entry.nextVariant;
+            }
+        }
+        entry.nextVariant = null;
+
+        size -= entry.size;
+        final V value = entry.value;
+        entry.value = null;
+        listener.onRemoved(value);
+    }
+
+    private void moveToTail(Entry<V> entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+
+        entry.prev = head.prev;
+        entry.next = head;
+        head.prev.next = entry;
+        head.prev = entry;
+    }
+
+}
@@ -2,35 +2,42 @@ package com.ramotion.cardslider.examples.simple.utils;
 
 import android.content.res.Resources;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.PorterDuff;
-import android.graphics.PorterDuffXfermode;
-import android.graphics.Rect;
-import android.graphics.RectF;
-import android.os.AsyncTask;
-import android.os.Build;
 import android.support.annotation.DrawableRes;
 import android.support.annotation.NonNull;
-
-import com.ramotion.cardslider.examples.simple.R;
+import android.support.v7.widget.RecyclerView;
 
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 
+/**
+ * Request to decode card bitmap on {@link DecodeScheduler} worker. Result is delivered to
+ * {@link Listener} on the main thread.
+ * <p>
+ * Concurrent requests of the same resource and size share one in-flight decode.
+ */
+public class DecodeBitmapTask {
 
-public class DecodeBitmapTask extends AsyncTask<Void, Void, Bitmap> {
-
-    private final BackgroundBitmapCache cache;
     private final Resources resources;
     private final int bitmapResId;
     private final int reqWidth;
     private final int reqHeight;
+    private final boolean cacheResult;
 
     private final Reference<Listener> refListener;
 
+    private int position = RecyclerView.NO_POSITION;
+    private boolean prefetch;
+    private Bitmap.Config config = DecodePolicy.getDefault().getConfig();
+
+    private volatile boolean cancelled;
+
+    private DecodeJob job;
+
     public interface Listener {
+        /**
+         * @param bitmap Decoded bitmap or {@code null}. Bitmap must be released by
+         *               {@link #releaseBitmap(Bitmap)} when it is not displayed anymore.
+         */
         void onPostExecuted(Bitmap bitmap);
     }
 
@@ -38,7 +45,18 @@ public class DecodeBitmapTask extends AsyncTask<Void, Void, Bitmap> {
                             int reqWidth, int reqHeight,
                             @NonNull Listener listener)
     {
-        this.cache = BackgroundBitmapCache.getInstance();
+        this(resources, bitmapResId, reqWidth, reqHeight, true, listener);
+    }
+
+    /**
+     * @param cacheResult Whether decoded bitmap should be put into cache. Cached bitmap is
+     *                    returned in any case. Use {@code false} for reduced resolution decodes.
+     */
+    public DecodeBitmapTask(Resources resources, @DrawableRes int bitmapResId,
+                            int reqWidth, int reqHeight, boolean cacheResult,
+                            @NonNull Listener listener)
+    {
+        this.cacheResult = cacheResult;
         this.resources = resources;
         this.bitmapResId = bitmapResId;
         this.reqWidth = reqWidth;
@@ -46,96 +64,119 @@ public class DecodeBitmapTask extends AsyncTask<Void, Void, Bitmap> {
         this.refListener = new WeakReference<>(listener);
     }
 
-    @Override
-    protected Bitmap doInBackground(Void... voids) {
-        Bitmap cachedBitmap = cache.getBitmapFromBgMemCache(bitmapResId);
-        if (cachedBitmap != null) {
-           return cachedBitmap;
-        }
-
-        final BitmapFactory.Options options = new BitmapFactory.Options();
-        options.inJustDecodeBounds = true;
-        BitmapFactory.decodeResource(resources, bitmapResId, options);
+    /**
+     * Sets adapter position of the card, used to prioritize decoding by distance from the active card.
+     * Task without position has the highest priority.
+     */
+    public DecodeBitmapTask setPosition(int position) {
+        this.position = position;
+        return this;
+    }
 
-        final int width = options.outWidth;
-        final int height = options.outHeight;
+    /**
+     * Marks task as prefetch, it is decoded after all non-prefetch tasks.
+     */
+    public DecodeBitmapTask setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+        return this;
+    }
 
-        int inSampleSize = 1;
-        if (height > reqHeight || width > reqWidth) {
-            int halfWidth = width / 2;
-            int halfHeight = height / 2;
+    /**
+     * Sets decode policy, {@link DecodePolicy#getDefault()} is used by default.
+     */
+    public DecodeBitmapTask setDecodePolicy(@NonNull DecodePolicy policy) {
+        this.config = policy.getConfig();
+        return this;
+    }
 
-            while ((halfHeight / inSampleSize) >= reqHeight && (halfWidth / inSampleSize) >= reqWidth
-                    && !isCancelled() )
-            {
-                inSampleSize *= 2;
-            }
-        }
+    public void execute() {
+        DecodeScheduler.getInstance().execute(this);
+    }
 
-        if (isCancelled()) {
-            return null;
-        }
+    /**
+     * Cancels the task, the listener is not called. Shared decode is cancelled only when
+     * all of its tasks are cancelled: queued decode is removed from the queue, running decode
+     * stops at the next stage.
+     */
+    public void cancel() {
+        cancelled = true;
+        DecodeScheduler.getInstance().remove(this);
+    }
 
-        options.inSampleSize = inSampleSize;
-        options.inJustDecodeBounds = false;
-        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+    public boolean isCancelled() {
+        return cancelled;
+    }
 
-        final Bitmap decodedBitmap = BitmapFactory.decodeResource(resources, bitmapResId, options);
+    int getPosition() {
+        return position;
+    }
 
-        final Bitmap result;
-        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
-            result = getRoundedCornerBitmap(decodedBitmap,
-                    resources.getDimension(R.dimen.card_corner_radius), reqWidth, reqHeight);
-            decodedBitmap.recycle();
-        } else {
-            result = decodedBitmap;
-        }
+    boolean isPrefetch() {
+        return prefetch;
+    }
 
-        cache.addBitmapToBgMemoryCache(bitmapResId, result);
-        return result;
+    Resources getResources() {
+        return resources;
     }
 
-    @Override
-    final protected void onPostExecute(Bitmap bitmap) {
-        final Listener listener = this.refListener.get();
-        if (listener != null) {
-            listener.onPostExecuted(bitmap);
-        }
+    int getBitmapResId() {
+        return bitmapResId;
     }
 
-    public static Bitmap getRoundedCornerBitmap(Bitmap bitmap, float pixels, int width, int height) {
-        final Bitmap output = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-        final Canvas canvas = new Canvas(output);
+    int getReqWidth() {
+        return reqWidth;
+    }
 
-        final int sourceWidth = bitmap.getWidth();
-        final int sourceHeight = bitmap.getHeight();
+    int getReqHeight() {
+        return reqHeight;
+    }
 
-        float xScale = (float) width / bitmap.getWidth();
-        float yScale = (float) height / bitmap.getHeight();
-        float scale = Math.max(xScale, yScale);
+    Bitmap.Config getConfig() {
+        return config;
+    }
 
-        float scaledWidth = scale * sourceWidth;
-        float scaledHeight = scale * sourceHeight;
+    boolean isCacheResult() {
+        return cacheResult;
+    }
 
-        float left = (width - scaledWidth) / 2;
-        float top = (height - scaledHeight) / 2;
+    DecodeJob getJob() {
+        return job;
+    }
 
-        final int color = 0xff424242;
-        final Paint paint = new Paint();
-        final Rect rect = new Rect(0, 0, width, height);
-        final RectF rectF = new RectF(rect);
+    void setJob(DecodeJob job) {
+        this.job = job;
+    }
 
-        final RectF targetRect = new RectF(left, top, left + scaledWidth, top + scaledHeight);
+    /**
+     * Delivers bitmap, acquired for this task, to the listener. Bitmap is released
+     * if task was cancelled or listener is gone.
+     */
+    void onPostExecute(Bitmap bitmap) {
+        final Listener listener = this.refListener.get();
+        if (isCancelled() || listener == null) {
+            if (bitmap != null) {
+                releaseBitmap(bitmap);
+            }
+            return;
+        }
 
-        paint.setAntiAlias(true);
-        canvas.drawARGB(0, 0, 0, 0);
-        paint.setColor(color);
-        canvas.drawRoundRect(rectF, pixels, pixels, paint);
+        listener.onPostExecuted(bitmap);
+    }
 
-        paint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC_IN));
-        canvas.drawBitmap(bitmap, null, targetRect, paint);
+    /**
+     * Releases bitmap delivered to {@link Listener#onPostExecuted(Bitmap)}, when it is not displayed anymore.
+     * Released bitmap may be reused for decoding of other images.
+     */
+    public static void releaseBitmap(@NonNull Bitmap bitmap) {
+        BitmapPool.getInstance().release(bitmap);
+    }
 
-        return output;
+    /**
+     * @return bitmap with rounded corners, scaled to fill requested size. Returned bitmap
+     * is taken from the pool, source bitmap is not changed.
+     */
+    public static Bitmap getRoundedCornerBitmap(Bitmap bitmap, float pixels, int width, int height) {
+        return RoundedCornerCompositor.round(bitmap, pixels, width, height);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,278 @@
+package com.ramotion.cardslider.examples.simple.utils;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.os.Build;
+import android.support.annotation.NonNull;
+
+import com.ramotion.cardslider.examples.simple.R;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single decode of a resource at requested size, shared by all {@link DecodeBitmapTask}s
+ * requesting the same key while it is in flight.
+ * <p>
+ * Attached tasks are guarded by {@link DecodeScheduler} lock. Job is cancelled only when
+ * the last attached task is cancelled.
+ */
+class DecodeJob extends PrioritizedJob {
+
+    private static final Paint SCALE_PAINT = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    private final DecodeScheduler scheduler;
+    private final BackgroundBitmapCache cache;
+    private final BitmapPool pool;
+    private final Resources resources;
+    private final long key;
+    private final int bitmapResId;
+    private final int reqWidth;
+    private final int reqHeight;
+    private final Bitmap.Config config;
+    private final int position;
+
+    private final List<DecodeBitmapTask> tasks = new ArrayList<>(1);
+
+    private volatile boolean cacheResult;
+
+    private boolean decodedFromResource;
+
+    DecodeJob(@NonNull DecodeScheduler scheduler, @NonNull Resources resources, long key,
+              int bitmapResId, int reqWidth, int reqHeight, @NonNull Bitmap.Config config, int position)
+    {
+        this.config = config;
+        this.position = position;
+        this.scheduler = scheduler;
+        this.cache = BackgroundBitmapCache.getInstance();
+        this.pool = BitmapPool.getInstance();
+        this.resources = resources;
+        this.key = key;
+        this.bitmapResId = bitmapResId;
+        this.reqWidth = reqWidth;
+        this.reqHeight = reqHeight;
+    }
+
+    long getKey() {
+        return key;
+    }
+
+    void attach(@NonNull DecodeBitmapTask task) {
+        tasks.add(task);
+        cacheResult |= task.isCacheResult();
+    }
+
+    /**
+     * @return {@code true} if no tasks are attached anymore.
+     */
+    boolean detach(@NonNull DecodeBitmapTask task) {
+        tasks.remove(task);
+        return tasks.isEmpty();
+    }
+
+    List<DecodeBitmapTask> getTasks() {
+        return tasks;
+    }
+
+    @Override
+    public void run() {
+        if (isCancelled()) {
+            return;
+        }
+
+        final Bitmap bitmap = decode();
+        scheduler.onJobFinished(this, isCancelled() ? null : bitmap);
+        if (bitmap == null) {
+            return;
+        }
+
+        // Written after delivery, so listeners don't wait for disk I/O
+        final DiskBitmapCache diskCache = DiskBitmapCache.getInstance();
+        if (decodedFromResource && cacheResult && diskCache != null && DecodePolicy.isSoftware(config)) {
+            diskCache.put(BackgroundBitmapCache.keyOf(bitmapResId, reqWidth, reqHeight, config), bitmap);
+        }
+
+        final PlaceholderIndex placeholders = PlaceholderIndex.getInstance();
+        if (placeholders != null) {
+            placeholders.update(resources, bitmapResId, bitmap);
+        }
+        pool.release(bitmap);
+    }
+
+    /**
+     * @return bitmap acquired for this job, or {@code null}.
+     */
+    private Bitmap decode() {
+        final boolean software = DecodePolicy.isSoftware(config);
+
+        Bitmap cachedBitmap = cache.get(bitmapResId, reqWidth, reqHeight, config, position);
+        if (cachedBitmap != null) {
+           return cachedBitmap;
+        }
+
+        // Hardware bitmaps can't be drawn into a software canvas or read into a buffer
+        final Bitmap largerBitmap = software ? cache.getLarger(bitmapResId, reqWidth, reqHeight, config, position) : null;
+        if (largerBitmap != null) {
+            return downscale(largerBitmap, config);
+        }
+
+        final DiskBitmapCache diskCache = DiskBitmapCache.getInstance();
+        if (diskCache != null && software) {
+            final Bitmap diskBitmap = diskCache.get(BackgroundBitmapCache.keyOf(bitmapResId, reqWidth, reqHeight, config));
+            if (diskBitmap != null) {
+                pool.acquire(diskBitmap);
+                if (cacheResult) {
+                    cache.put(bitmapResId, reqWidth, reqHeight, config, diskBitmap, position);
+                }
+                return diskBitmap;
+            }
+        }
+
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        options.inScaled = false;
+        BitmapFactory.decodeResource(resources, bitmapResId, options);
+
+        if (isCancelled() || options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        setExactScale(options, options.outWidth, options.outHeight);
+        options.inJustDecodeBounds = false;
+        options.inPreferredConfig = config;
+
+        final Bitmap decodedBitmap = software
+                ? decodeReusing(options)
+                : BitmapFactory.decodeResource(resources, bitmapResId, options);
+        if (decodedBitmap == null || isCancelled()) {
+            if (decodedBitmap != null) {
+                pool.put(decodedBitmap);
+            }
+            return null;
+        }
+
+        final Bitmap result;
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            result = RoundedCornerCompositor.round(decodedBitmap,
+                    resources.getDimension(R.dimen.card_corner_radius), reqWidth, reqHeight);
+            pool.put(decodedBitmap);
+        } else {
+            result = decodedBitmap;
+        }
+
+        decodedFromResource = true;
+        pool.acquire(result);
+        if (cacheResult) {
+            cache.put(bitmapResId, reqWidth, reqHeight, config, result, position);
+        }
+        return result;
+    }
+
+    /**
+     * Sets decode options to scale source to fill requested size exactly, as {@code centerCrop}
+     * shows it: the larger side of the result matches requested size, the other one is not smaller.
+     * Power-of-two part of the scale is done by {@code inSampleSize} while decoding, the rest
+     * by density scaling in the same decode pass.
+     */
+    private void setExactScale(@NonNull BitmapFactory.Options options, int width, int height) {
+        final float widthScale = (float) reqWidth / width;
+        final float heightScale = (float) reqHeight / height;
+        final float scale = Math.max(widthScale, heightScale);
+
+        options.inSampleSize = 1;
+        options.inDensity = 0;
+        options.inTargetDensity = 0;
+        options.inScaled = false;
+
+        if (scale >= 1f) {
+            return;
+        }
+
+        while (scale * options.inSampleSize * 2 <= 1f) {
+            options.inSampleSize *= 2;
+        }
+
+        if (scale * options.inSampleSize < 1f) {
+            // Ratio of densities is the remaining scale after sampling
+            options.inScaled = true;
+            if (widthScale >= heightScale) {
+                options.inDensity = width;
+                options.inTargetDensity = reqWidth * options.inSampleSize;
+            } else {
+                options.inDensity = height;
+                options.inTargetDensity = reqHeight * options.inSampleSize;
+            }
+        }
+    }
+
+    /**
+     * Decodes resource into a pooled bitmap if one fits, falls back to a new allocation otherwise.
+     */
+    private Bitmap decodeReusing(@NonNull BitmapFactory.Options options) {
+        float sampledWidth = (options.outWidth + options.inSampleSize - 1) / options.inSampleSize;
+        float sampledHeight = (options.outHeight + options.inSampleSize - 1) / options.inSampleSize;
+        if (options.inScaled && options.inDensity > 0 && options.inTargetDensity > 0) {
+            final float density = (float) options.inTargetDensity / options.inDensity;
+            sampledWidth = sampledWidth * density + 1;
+            sampledHeight = sampledHeight * density + 1;
+        }
+        final int byteCount = (int) sampledWidth * (int) sampledHeight * BitmapPool.bytesPerPixel(options.inPreferredConfig);
+
+        options.inMutable = true;
+        options.inBitmap = pool.getReusable(byteCount);
+
+        if (options.inBitmap != null) {
+            Bitmap bitmap = null;
+            try {
+                bitmap = BitmapFactory.decodeResource(resources, bitmapResId, options);
+            } catch (IllegalArgumentException e) {
+                // Pooled bitmap doesn't fit, decode into a new one
+            }
+
+            if (bitmap != null) {
+                return bitmap;
+            }
+
+            pool.put(options.inBitmap);
+            options.inBitmap = null;
+        }
+
+        return BitmapFactory.decodeResource(resources, bitmapResId, options);
+    }
+
+    /**
+     * Serves request from a larger cached variant without decoding resource again.
+     */
+    private Bitmap downscale(@NonNull Bitmap source, @NonNull Bitmap.Config config) {
+        final Bitmap result;
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            // Source corners are already rounded, with a larger radius in pixels of the result.
+            // Rounding again at the requested size covers them.
+            result = RoundedCornerCompositor.round(source,
+                    resources.getDimension(R.dimen.card_corner_radius), reqWidth, reqHeight);
+        } else {
+            final float scale = Math.max((float) reqWidth / source.getWidth(), (float) reqHeight / source.getHeight());
+            if (scale >= 1f) {
+                return source;
+            }
+            // Single filtered draw into a pooled bitmap of exact size
+            result = pool.get(
+                    Math.max(1, Math.round(source.getWidth() * scale)),
+                    Math.max(1, Math.round(source.getHeight() * scale)), config);
+            final Canvas canvas = new Canvas(result);
+            canvas.scale((float) result.getWidth() / source.getWidth(), (float) result.getHeight() / source.getHeight());
+            canvas.drawBitmap(source, 0, 0, SCALE_PAINT);
+        }
+
+        pool.release(source);
+        pool.acquire(result);
+        if (cacheResult && !isCancelled()) {
+            cache.put(bitmapResId, reqWidth, reqHeight, config, result, position);
+        }
+        return result;
+    }
+
+}
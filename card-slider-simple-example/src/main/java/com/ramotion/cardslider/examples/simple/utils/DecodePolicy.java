@@ -0,0 +1,76 @@
+package com.ramotion.cardslider.examples.simple.utils;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.support.annotation.NonNull;
+
+/**
+ * Chooses bitmap config for {@link DecodeBitmapTask}.
+ * <p>
+ * Card photos are opaque, so alpha channel is needed only for rounded corners composited
+ * into the bitmap before Lollipop. Otherwise {@link Bitmap.Config#RGB_565} halves memory per card
+ * on low-RAM devices, and {@link Bitmap.Config#HARDWARE} keeps pixels in graphics memory only
+ * on Oreo and above. Hardware bitmaps can't be pooled or written to {@link DiskBitmapCache}.
+ */
+public class DecodePolicy {
+
+    /** Always decodes {@link Bitmap.Config#ARGB_8888}. */
+    public static final DecodePolicy ARGB_8888 = new DecodePolicy(Bitmap.Config.ARGB_8888);
+
+    private static DecodePolicy defaultPolicy = ARGB_8888;
+
+    private final Bitmap.Config config;
+
+    private DecodePolicy(@NonNull Bitmap.Config config) {
+        this.config = config;
+    }
+
+    /**
+     * @return policy for opaque card images on this device.
+     */
+    @NonNull
+    public static DecodePolicy forDevice(@NonNull Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            // Rounded corners are composited into bitmap
+            return ARGB_8888;
+        }
+
+        final ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        if (am.isLowRamDevice()) {
+            return new DecodePolicy(Bitmap.Config.RGB_565);
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            return new DecodePolicy(Bitmap.Config.HARDWARE);
+        }
+
+        return ARGB_8888;
+    }
+
+    /**
+     * Sets policy used by tasks without explicitly set policy.
+     */
+    public static synchronized void setDefault(@NonNull DecodePolicy policy) {
+        defaultPolicy = policy;
+    }
+
+    @NonNull
+    public static synchronized DecodePolicy getDefault() {
+        return defaultPolicy;
+    }
+
+    @NonNull
+    public Bitmap.Config getConfig() {
+        return config;
+    }
+
+    /**
+     * @return {@code true} if bitmaps of this config can be reused and their pixels read.
+     */
+    static boolean isSoftware(@NonNull Bitmap.Config config) {
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.O || config != Bitmap.Config.HARDWARE;
+    }
+
+}
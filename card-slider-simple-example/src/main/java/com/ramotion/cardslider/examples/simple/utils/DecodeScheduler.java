@@ -0,0 +1,227 @@
+package com.ramotion.cardslider.examples.simple.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+import android.support.v4.util.LongSparseArray;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded worker pool for {@link DecodeBitmapTask}s with a priority queue.
+ * <p>
+ * Queued decodes are ordered by distance of their card position from the active card position.
+ * Tasks without position, like the details screen image, go first. Queued decodes are
+ * reprioritized by {@link #setActivePosition(int)} as slider scrolls.
+ * <p>
+ * Prefetch tasks go after all other tasks.
+ * <p>
+ * Tasks requesting the same resource and size while its decode is in flight are attached
+ * to that decode, and all of them are notified when it finishes.
+ */
+public class DecodeScheduler {
+
+    static final int PRIORITY_HIGHEST = -1;
+    static final int PRIORITY_PREFETCH_OFFSET = 1 << 16;
+
+    private static final int WORKER_COUNT =
+            Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, 3));
+
+    private static DecodeScheduler instance;
+
+    private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+    private final ThreadPoolExecutor executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final LongSparseArray<DecodeJob> inFlight = new LongSparseArray<>();
+
+    private int activePosition = 0;
+
+    public static DecodeScheduler getInstance() {
+        if (instance == null) {
+            instance = new DecodeScheduler();
+        }
+        return instance;
+    }
+
+    private DecodeScheduler() {
+        executor = new ThreadPoolExecutor(WORKER_COUNT, WORKER_COUNT, 30, TimeUnit.SECONDS, queue,
+                new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(@NonNull final Runnable runnable) {
+                        return new Thread(new Runnable() {
+                            @Override
+                            public void run() {
+                                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                                runnable.run();
+                            }
+                        }, "CardDecode #" + count.incrementAndGet());
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Reprioritizes queued tasks by distance from new active card position.
+     */
+    public synchronized void setActivePosition(int position) {
+        if (position == RecyclerView.NO_POSITION || position == activePosition) {
+            return;
+        }
+
+        activePosition = position;
+        BackgroundBitmapCache.getInstance().setActivePosition(position);
+
+        boolean requeued = false;
+        for (Object item : queue.toArray()) {
+            if (!(item instanceof DecodeJob)) {
+                continue;
+            }
+
+            final DecodeJob job = (DecodeJob) item;
+            final int priority = priorityOf(job);
+            if (job.getPriority() != priority && queue.remove(job)) {
+                job.setPriority(priority);
+                queue.add(job);
+                requeued = true;
+            }
+        }
+
+        if (requeued) {
+            // Jobs are added to the queue directly, make sure a worker is alive to take them.
+            executor.prestartCoreThread();
+        }
+    }
+
+    public synchronized int getActivePosition() {
+        return activePosition;
+    }
+
+    synchronized void execute(@NonNull DecodeBitmapTask task) {
+        final long key = BackgroundBitmapCache.exactKeyOf(
+                task.getBitmapResId(), task.getReqWidth(), task.getReqHeight(), task.getConfig());
+
+        DecodeJob job = inFlight.get(key);
+        if (job == null) {
+            job = new DecodeJob(this, task.getResources(), key,
+                    task.getBitmapResId(), task.getReqWidth(), task.getReqHeight(), task.getConfig(),
+                    task.getPosition());
+            job.attach(task);
+            task.setJob(job);
+
+            job.setPriority(priorityOf(job));
+            job.setSequence(sequence.getAndIncrement());
+            inFlight.put(key, job);
+            executor.execute(job);
+        } else {
+            job.attach(task);
+            task.setJob(job);
+
+            final int priority = priorityOf(job);
+            if (priority < job.getPriority() && queue.remove(job)) {
+                job.setPriority(priority);
+                queue.add(job);
+            }
+        }
+    }
+
+    /**
+     * Runs job which is not bound to a card position, e.g. a region decode.
+     */
+    synchronized void execute(@NonNull PrioritizedJob job, int priority) {
+        job.setPriority(priority);
+        job.setSequence(sequence.getAndIncrement());
+        executor.execute(job);
+    }
+
+    /**
+     * Cancels job and removes it from the queue.
+     */
+    synchronized void cancel(@NonNull PrioritizedJob job) {
+        job.cancel();
+        queue.remove(job);
+    }
+
+    void postToMain(@NonNull Runnable runnable) {
+        mainHandler.post(runnable);
+    }
+
+    /**
+     * Detaches cancelled task from its decode. Decode is cancelled and removed from the queue
+     * when no other task waits for it.
+     */
+    synchronized void remove(@NonNull DecodeBitmapTask task) {
+        final DecodeJob job = task.getJob();
+        if (job == null) {
+            return;
+        }
+
+        task.setJob(null);
+        if (job.detach(task)) {
+            job.cancel();
+            queue.remove(job);
+            if (inFlight.get(job.getKey()) == job) {
+                inFlight.remove(job.getKey());
+            }
+        }
+    }
+
+    void onJobFinished(@NonNull DecodeJob job, final Bitmap bitmap) {
+        final DecodeBitmapTask[] tasks;
+        synchronized (this) {
+            if (inFlight.get(job.getKey()) == job) {
+                inFlight.remove(job.getKey());
+            }
+
+            final List<DecodeBitmapTask> attached = job.getTasks();
+            tasks = attached.toArray(new DecodeBitmapTask[attached.size()]);
+            attached.clear();
+            for (DecodeBitmapTask task : tasks) {
+                task.setJob(null);
+                if (bitmap != null) {
+                    // Hold the bitmap for each task until delivered, so it is not pooled in between.
+                    BitmapPool.getInstance().acquire(bitmap);
+                }
+            }
+        }
+
+        if (tasks.length == 0) {
+            return;
+        }
+
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                for (DecodeBitmapTask task : tasks) {
+                    task.onPostExecute(bitmap);
+                }
+            }
+        });
+    }
+
+    private int priorityOf(@NonNull DecodeJob job) {
+        int result = Integer.MAX_VALUE;
+        for (DecodeBitmapTask task : job.getTasks()) {
+            result = Math.min(result, priorityOf(task));
+        }
+        return result;
+    }
+
+    private int priorityOf(@NonNull DecodeBitmapTask task) {
+        final int position = task.getPosition();
+        final int priority = position == RecyclerView.NO_POSITION
+                ? PRIORITY_HIGHEST : Math.abs(position - activePosition);
+        return task.isPrefetch() ? priority + PRIORITY_PREFETCH_OFFSET : priority;
+    }
+
+}
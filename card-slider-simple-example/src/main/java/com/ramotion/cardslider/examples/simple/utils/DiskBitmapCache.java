@@ -0,0 +1,294 @@
+package com.ramotion.cardslider.examples.simple.utils;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Disk tier under {@link BackgroundBitmapCache}. Keeps already downsampled (and on pre-Lollipop
+ * already rounded) card bitmaps as raw uncompressed pixels, so a cold start reads them back
+ * with memory-mapped I/O instead of decoding resources again.
+ * <p>
+ * Files are written to a temporary file and renamed, so a crash never leaves a partial entry.
+ * Entries are evicted in LRU order by total size in bytes. Cache directory is per app version,
+ * since resource IDs used in keys may change between versions.
+ */
+public class DiskBitmapCache {
+
+    private static final String DIR_PREFIX = "card_bitmaps_v";
+    private static final String FILE_SUFFIX = ".px";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int MAGIC = 0x43534231;
+    private static final int HEADER_SIZE = 16;
+    private static final long DEFAULT_MAX_SIZE = 32 * 1024 * 1024;
+
+    private static DiskBitmapCache instance;
+
+    private final File cacheDir;
+    private final File directory;
+    private final long maxSize;
+
+    /** File sizes by key, in access order. Loaded lazily on a worker thread. */
+    private LinkedHashMap<Long, Long> index;
+    private long size;
+
+    /**
+     * Initializes disk cache in app cache directory. Cheap enough to call on the main thread,
+     * the directory is scanned on first use.
+     */
+    public static synchronized void init(@NonNull Context context) {
+        if (instance != null) {
+            return;
+        }
+
+        int versionCode;
+        try {
+            versionCode = context.getPackageManager().getPackageInfo(context.getPackageName(), 0).versionCode;
+        } catch (PackageManager.NameNotFoundException e) {
+            versionCode = 0;
+        }
+
+        final File cacheDir = context.getApplicationContext().getCacheDir();
+        instance = new DiskBitmapCache(cacheDir, new File(cacheDir, DIR_PREFIX + versionCode), DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @return disk cache or {@code null} if it is not initialized.
+     */
+    @Nullable
+    public static synchronized DiskBitmapCache getInstance() {
+        return instance;
+    }
+
+    private DiskBitmapCache(File cacheDir, File directory, long maxSize) {
+        this.cacheDir = cacheDir;
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Reads cached pixels into a pooled bitmap.
+     *
+     * @return bitmap or {@code null} if there is no entry for key.
+     */
+    @Nullable
+    public Bitmap get(long key) {
+        synchronized (this) {
+            if (!ensureIndex().containsKey(key)) {
+                return null;
+            }
+            index.get(key); // Marks entry as recently used
+        }
+
+        final File file = fileOf(key);
+        RandomAccessFile raf = null;
+        Bitmap bitmap = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            final FileChannel channel = raf.getChannel();
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Bad header: " + file);
+            }
+            final int width = buffer.getInt();
+            final int height = buffer.getInt();
+            final Bitmap.Config config = Bitmap.Config.values()[buffer.getInt()];
+
+            bitmap = BitmapPool.getInstance().get(width, height, config);
+            bitmap.copyPixelsFromBuffer(buffer);
+
+            file.setLastModified(System.currentTimeMillis());
+            return bitmap;
+        } catch (IOException | RuntimeException e) {
+            if (bitmap != null) {
+                BitmapPool.getInstance().put(bitmap);
+            }
+            remove(key);
+            return null;
+        } finally {
+            closeQuietly(raf);
+        }
+    }
+
+    /**
+     * Writes bitmap pixels for key, if there is no entry for it yet.
+     */
+    public void put(long key, @NonNull Bitmap bitmap) {
+        if (bitmap.getConfig() == null || bitmap.isRecycled()) {
+            return;
+        }
+
+        synchronized (this) {
+            if (ensureIndex().containsKey(key)) {
+                return;
+            }
+        }
+
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+
+        final File file = fileOf(key);
+        final File temp = new File(directory, file.getName() + '.' + Thread.currentThread().getId() + TEMP_SUFFIX);
+        final long length = HEADER_SIZE + bitmap.getByteCount();
+
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(temp, "rw");
+            raf.setLength(length);
+
+            final MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+            buffer.putInt(MAGIC);
+            buffer.putInt(bitmap.getWidth());
+            buffer.putInt(bitmap.getHeight());
+            buffer.putInt(bitmap.getConfig().ordinal());
+            bitmap.copyPixelsToBuffer(buffer);
+            buffer.force();
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(raf);
+            temp.delete();
+            return;
+        }
+        closeQuietly(raf);
+
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            return;
+        }
+
+        synchronized (this) {
+            final Long previous = index.put(key, length);
+            size += length - (previous == null ? 0 : previous);
+            trimToSize();
+        }
+    }
+
+    private synchronized void remove(long key) {
+        final Long length = ensureIndex().remove(key);
+        if (length != null) {
+            size -= length;
+        }
+        fileOf(key).delete();
+    }
+
+    private void trimToSize() {
+        final Iterator<Map.Entry<Long, Long>> it = index.entrySet().iterator();
+        while (size > maxSize && it.hasNext()) {
+            final Map.Entry<Long, Long> eldest = it.next();
+            fileOf(eldest.getKey()).delete();
+            size -= eldest.getValue();
+            it.remove();
+        }
+    }
+
+    private LinkedHashMap<Long, Long> ensureIndex() {
+        if (index != null) {
+            return index;
+        }
+
+        index = new LinkedHashMap<>(64, 0.75f, true);
+        size = 0;
+
+        final File[] dirs = cacheDir.listFiles();
+        if (dirs != null) {
+            for (File dir : dirs) {
+                if (dir.getName().startsWith(DIR_PREFIX) && !dir.equals(directory)) {
+                    // Entries of previous app versions
+                    deleteTree(dir);
+                }
+            }
+        }
+
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return index;
+        }
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File f1, File f2) {
+                final long m1 = f1.lastModified();
+                final long m2 = f2.lastModified();
+                return m1 < m2 ? -1 : (m1 == m2 ? 0 : 1);
+            }
+        });
+
+        for (File file : files) {
+            final String name = file.getName();
+            if (!name.endsWith(FILE_SUFFIX)) {
+                // Leftover of interrupted write
+                file.delete();
+                continue;
+            }
+
+            final long key = parseKey(name.substring(0, name.length() - FILE_SUFFIX.length()));
+            if (key == -1) {
+                file.delete();
+                continue;
+            }
+
+            index.put(key, file.length());
+            size += file.length();
+        }
+
+        trimToSize();
+        return index;
+    }
+
+    private File fileOf(long key) {
+        return new File(directory, Long.toHexString(key) + FILE_SUFFIX);
+    }
+
+    private static long parseKey(String hex) {
+        if (hex.isEmpty() || hex.length() > 16) {
+            return -1;
+        }
+
+        long result = 0;
+        for (int i = 0; i < hex.length(); i++) {
+            final int digit = Character.digit(hex.charAt(i), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            result = (result << 4) | digit;
+        }
+        return result;
+    }
+
+    private static void deleteTree(File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteTree(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static void closeQuietly(RandomAccessFile raf) {
+        if (raf == null) {
+            return;
+        }
+        try {
+            raf.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.ramotion.cardslider.examples.simple.utils;
+
+import android.graphics.Bitmap;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Passes a bitmap which is already on screen from one activity to the next one,
+ * so the started activity can show it during its enter transition without decoding it again.
+ * <p>
+ * Holds one bitmap at a time, offered bitmap is acquired from {@link BitmapPool} until it's taken
+ * or replaced. Must be used on the main thread only.
+ */
+public class ImageHandoff {
+
+    private static int resId;
+    private static Bitmap bitmap;
+
+    private ImageHandoff() {}
+
+    /**
+     * Offers bitmap of resource to the next activity. Previously offered bitmap is released.
+     */
+    public static void offer(@DrawableRes int resId, @NonNull Bitmap bitmap) {
+        clear();
+        BitmapPool.getInstance().acquire(bitmap);
+        ImageHandoff.resId = resId;
+        ImageHandoff.bitmap = bitmap;
+    }
+
+    /**
+     * @return offered bitmap of resource or {@code null}. Caller owns returned bitmap
+     * and must release it by {@link DecodeBitmapTask#releaseBitmap(Bitmap)}.
+     */
+    @Nullable
+    public static Bitmap take(@DrawableRes int resId) {
+        if (bitmap == null || ImageHandoff.resId != resId) {
+            clear();
+            return null;
+        }
+
+        final Bitmap result = bitmap;
+        bitmap = null;
+        return result;
+    }
+
+    public static void clear() {
+        if (bitmap != null) {
+            DecodeBitmapTask.releaseBitmap(bitmap);
+            bitmap = null;
+        }
+    }
+
+}
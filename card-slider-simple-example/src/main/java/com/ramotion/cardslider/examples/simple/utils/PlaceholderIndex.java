@@ -0,0 +1,266 @@
+package com.ramotion.cardslider.examples.simple.utils;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.support.annotation.ColorInt;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.SparseIntArray;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Placeholder colors of images, shown by cards synchronously while their bitmaps are decoded.
+ * <p>
+ * Color is computed by {@link DecodeJob} as a side product of decoding, and kept in a compact
+ * index of (resource, color) pairs persisted in app cache directory. Index file starts with
+ * app version, since resource IDs may change between versions.
+ */
+public class PlaceholderIndex {
+
+    private static final String FILE_NAME = "card_placeholders.idx";
+    private static final int MAGIC = 0x43535048;
+    private static final int SAMPLE_GRID = 16;
+
+    private static PlaceholderIndex instance;
+
+    private final SparseIntArray colors = new SparseIntArray();
+    private final File file;
+    private final int version;
+
+    private boolean saveScheduled;
+
+    /**
+     * Initializes index, it's loaded on a decode worker. Colors are not available until it's loaded.
+     */
+    public static synchronized void init(@NonNull Context context) {
+        if (instance != null) {
+            return;
+        }
+
+        int versionCode;
+        try {
+            versionCode = context.getPackageManager().getPackageInfo(context.getPackageName(), 0).versionCode;
+        } catch (PackageManager.NameNotFoundException e) {
+            versionCode = 0;
+        }
+
+        final PlaceholderIndex index = new PlaceholderIndex(
+                new File(context.getApplicationContext().getCacheDir(), FILE_NAME), versionCode);
+        instance = index;
+
+        DecodeScheduler.getInstance().execute(new PrioritizedJob() {
+            @Override
+            public void run() {
+                index.load();
+            }
+        }, DecodeScheduler.PRIORITY_HIGHEST);
+    }
+
+    /**
+     * @return index or {@code null} if it is not initialized.
+     */
+    @Nullable
+    public static synchronized PlaceholderIndex getInstance() {
+        return instance;
+    }
+
+    private PlaceholderIndex(File file, int version) {
+        this.file = file;
+        this.version = version;
+    }
+
+    /**
+     * @return placeholder color of resource, or {@link Color#TRANSPARENT} if it's not known yet.
+     */
+    @ColorInt
+    public synchronized int getColor(@DrawableRes int resId) {
+        return colors.get(resId, Color.TRANSPARENT);
+    }
+
+    synchronized boolean contains(@DrawableRes int resId) {
+        return colors.indexOfKey(resId) >= 0;
+    }
+
+    /**
+     * Computes placeholder color of resource from its decoded bitmap, if it is not known yet.
+     * Called on a decode worker.
+     */
+    void update(@NonNull Resources resources, @DrawableRes int resId, @NonNull Bitmap bitmap) {
+        if (contains(resId)) {
+            return;
+        }
+
+        final int color;
+        if (DecodePolicy.isSoftware(bitmap.getConfig())) {
+            color = averageColorOf(bitmap);
+        } else {
+            // Pixels of hardware bitmap are not accessible, decode a tiny software copy
+            final Bitmap thumbnail = decodeThumbnail(resources, resId);
+            if (thumbnail == null) {
+                return;
+            }
+            color = averageColorOf(thumbnail);
+            thumbnail.recycle();
+        }
+
+        synchronized (this) {
+            colors.put(resId, color);
+            if (saveScheduled) {
+                return;
+            }
+            saveScheduled = true;
+        }
+
+        // Batches colors of cards decoded together into one write
+        DecodeScheduler.getInstance().execute(new PrioritizedJob() {
+            @Override
+            public void run() {
+                save();
+            }
+        }, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return average of sampled opaque pixels, transparent rounded corners are skipped.
+     */
+    @ColorInt
+    private static int averageColorOf(@NonNull Bitmap bitmap) {
+        final int width = bitmap.getWidth();
+        final int height = bitmap.getHeight();
+
+        long r = 0, g = 0, b = 0;
+        int count = 0;
+        for (int y = 0; y < SAMPLE_GRID; y++) {
+            for (int x = 0; x < SAMPLE_GRID; x++) {
+                final int pixel = bitmap.getPixel(
+                        (x * 2 + 1) * width / (SAMPLE_GRID * 2),
+                        (y * 2 + 1) * height / (SAMPLE_GRID * 2));
+                if (Color.alpha(pixel) != 0xFF) {
+                    continue;
+                }
+                r += Color.red(pixel);
+                g += Color.green(pixel);
+                b += Color.blue(pixel);
+                count++;
+            }
+        }
+
+        if (count == 0) {
+            return Color.TRANSPARENT;
+        }
+        return Color.rgb((int) (r / count), (int) (g / count), (int) (b / count));
+    }
+
+    private static Bitmap decodeThumbnail(Resources resources, int resId) {
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        options.inScaled = false;
+        BitmapFactory.decodeResource(resources, resId, options);
+
+        options.inSampleSize = 1;
+        while (options.outWidth / (options.inSampleSize * 2) >= SAMPLE_GRID
+                && options.outHeight / (options.inSampleSize * 2) >= SAMPLE_GRID)
+        {
+            options.inSampleSize *= 2;
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        return BitmapFactory.decodeResource(resources, resId, options);
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != MAGIC || in.readInt() != version) {
+                // Written by another app version
+                file.delete();
+                return;
+            }
+
+            final int count = in.readInt();
+            if (count < 0 || count > file.length() / 8) {
+                throw new IOException("Bad entry count: " + count);
+            }
+
+            final SparseIntArray loaded = new SparseIntArray(count);
+            for (int i = 0; i < count; i++) {
+                loaded.put(in.readInt(), in.readInt());
+            }
+
+            synchronized (this) {
+                for (int i = 0; i < loaded.size(); i++) {
+                    if (colors.indexOfKey(loaded.keyAt(i)) < 0) {
+                        colors.put(loaded.keyAt(i), loaded.valueAt(i));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            file.delete();
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    private void save() {
+        final SparseIntArray snapshot;
+        synchronized (this) {
+            saveScheduled = false;
+            snapshot = colors.clone();
+        }
+
+        final File temp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            out.writeInt(MAGIC);
+            out.writeInt(version);
+            out.writeInt(snapshot.size());
+            for (int i = 0; i < snapshot.size(); i++) {
+                out.writeInt(snapshot.keyAt(i));
+                out.writeInt(snapshot.valueAt(i));
+            }
+            out.close();
+            out = null;
+
+            if (!temp.renameTo(file)) {
+                temp.delete();
+            }
+        } catch (IOException e) {
+            temp.delete();
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.ramotion.cardslider.examples.simple.utils;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Job of {@link DecodeScheduler} queue. Jobs with lower priority value run first,
+ * jobs with equal priority run in submission order.
+ */
+abstract class PrioritizedJob implements Runnable, Comparable<PrioritizedJob> {
+
+    private int priority;
+    private int sequence;
+
+    private volatile boolean cancelled;
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    int getPriority() {
+        return priority;
+    }
+
+    void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(@NonNull PrioritizedJob other) {
+        if (priority != other.priority) {
+            return priority < other.priority ? -1 : 1;
+        }
+        return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+    }
+
+}
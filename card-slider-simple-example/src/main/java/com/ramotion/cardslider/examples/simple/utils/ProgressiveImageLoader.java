@@ -0,0 +1,388 @@
+package com.ramotion.cardslider.examples.simple.utils;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Rect;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+import android.view.View;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Loads large image into {@link TiledImageView} progressively: a low resolution preview first,
+ * then visible tiles at full resolution with {@link BitmapRegionDecoder} on {@link DecodeScheduler}.
+ * <p>
+ * Only tiles of the visible part of the image are decoded, into bitmaps from {@link BitmapPool}.
+ * Tiles are aligned to the image origin. Tiles which are not visible anymore, after the view is
+ * resized, are released to the pool.
+ */
+public class ProgressiveImageLoader implements DecodeBitmapTask.Listener, View.OnLayoutChangeListener {
+
+    /** Preview is decoded at screen size divided by this factor. */
+    public static final int PREVIEW_FACTOR = 4;
+
+    private static final int TILE_SIZE = 512;
+    private static final int MAX_TILE_COLUMNS = 1 << 12;
+
+    private final DecodeScheduler scheduler = DecodeScheduler.getInstance();
+    private final Resources resources;
+    private final int resId;
+    private final TiledImageView view;
+
+    private final SparseArray<TileJob> tileJobs = new SparseArray<>();
+
+    private DecodeBitmapTask previewTask;
+    private Bitmap preview;
+    private PrioritizedJob setupJob;
+
+    private RegionDecoder decoder;
+    private int sampleSize;
+    private boolean tilesEnabled = true;
+    private boolean released;
+
+    /**
+     * Region decoder which is recycled only when no tile is decoded with it. Decoding of regions
+     * is serialized by {@link BitmapRegionDecoder} anyway, so the lock costs no parallelism.
+     */
+    private static class RegionDecoder {
+        private final BitmapRegionDecoder decoder;
+        private boolean recycled;
+
+        RegionDecoder(@NonNull BitmapRegionDecoder decoder) {
+            this.decoder = decoder;
+        }
+
+        int getWidth() {
+            return decoder.getWidth();
+        }
+
+        int getHeight() {
+            return decoder.getHeight();
+        }
+
+        /**
+         * @return decoded region, or {@code null} if decoder is recycled.
+         */
+        @Nullable
+        synchronized Bitmap decodeRegion(@NonNull Rect rect, @NonNull BitmapFactory.Options options) {
+            return recycled ? null : decoder.decodeRegion(rect, options);
+        }
+
+        /**
+         * Waits for the running decode, so must not be called on the main thread.
+         */
+        synchronized void recycle() {
+            recycled = true;
+            decoder.recycle();
+        }
+    }
+
+    private class TileJob extends PrioritizedJob {
+        final RegionDecoder decoder;
+        final int key;
+        final Rect srcRect;
+        final int sampleSize;
+
+        TileJob(RegionDecoder decoder, int key, Rect srcRect, int sampleSize) {
+            this.decoder = decoder;
+            this.key = key;
+            this.srcRect = srcRect;
+            this.sampleSize = sampleSize;
+        }
+
+        @Override
+        public void run() {
+            if (isCancelled()) {
+                return;
+            }
+
+            final BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inSampleSize = sampleSize;
+            options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+            options.inMutable = true;
+            // Region is decoded into the bitmap without resizing it, so it must have the tile size
+            options.inBitmap = BitmapPool.getInstance().get(
+                    Math.max(1, srcRect.width() / sampleSize),
+                    Math.max(1, srcRect.height() / sampleSize),
+                    Bitmap.Config.ARGB_8888);
+
+            Bitmap tile;
+            try {
+                tile = decoder.decodeRegion(srcRect, options);
+            } catch (IllegalArgumentException e) {
+                // Pooled bitmap can't be reused
+                BitmapPool.getInstance().put(options.inBitmap);
+                options.inBitmap = null;
+                tile = decoder.decodeRegion(srcRect, options);
+            }
+
+            if (tile == null) {
+                if (options.inBitmap != null) {
+                    BitmapPool.getInstance().put(options.inBitmap);
+                }
+                return;
+            }
+
+            final Bitmap decoded = tile;
+            scheduler.postToMain(new Runnable() {
+                @Override
+                public void run() {
+                    onTileDecoded(TileJob.this, decoded);
+                }
+            });
+        }
+    }
+
+    public ProgressiveImageLoader(@NonNull Resources resources, @DrawableRes int resId, @NonNull TiledImageView view) {
+        this.resources = resources;
+        this.resId = resId;
+        this.view = view;
+    }
+
+    /**
+     * Starts loading.
+     *
+     * @param screenWidth  Screen width, used for preview size.
+     * @param screenHeight Screen height, used for preview size.
+     * @param preview      Already decoded preview, e.g. from {@link ImageHandoff}, or {@code null}
+     *                     to decode it. Loader owns passed bitmap.
+     */
+    public void start(int screenWidth, int screenHeight, @Nullable Bitmap preview) {
+        if (preview != null) {
+            onPostExecuted(preview);
+        } else {
+            previewTask = new DecodeBitmapTask(resources, resId,
+                    screenWidth / PREVIEW_FACTOR, screenHeight / PREVIEW_FACTOR, this);
+            previewTask.execute();
+        }
+
+        setupJob = new PrioritizedJob() {
+            @Override
+            public void run() {
+                final BitmapRegionDecoder regionDecoder = openDecoder();
+                if (regionDecoder == null) {
+                    return;
+                }
+
+                scheduler.postToMain(new Runnable() {
+                    @Override
+                    public void run() {
+                        onDecoderReady(regionDecoder);
+                    }
+                });
+            }
+        };
+        scheduler.execute(setupJob, DecodeScheduler.PRIORITY_HIGHEST);
+    }
+
+    /**
+     * Enables or disables tile decoding. Region decoder is opened anyway, so tiles can be
+     * disabled while the view is animated, e.g. by a shared element transition.
+     */
+    public void setTilesEnabled(boolean enabled) {
+        if (tilesEnabled != enabled) {
+            tilesEnabled = enabled;
+            updateTiles();
+        }
+    }
+
+    /**
+     * Cancels pending decodes, already shown preview and tiles stay on screen.
+     */
+    public void cancel() {
+        released = true;
+
+        if (previewTask != null) {
+            previewTask.cancel();
+            previewTask = null;
+        }
+        if (setupJob != null) {
+            scheduler.cancel(setupJob);
+            setupJob = null;
+        }
+
+        cancelTileJobs();
+        view.removeOnLayoutChangeListener(this);
+    }
+
+    /**
+     * Cancels loading and releases preview, tiles and region decoder.
+     */
+    public void release() {
+        cancel();
+        view.clearTiles();
+
+        if (preview != null) {
+            view.setImageDrawable(null);
+            DecodeBitmapTask.releaseBitmap(preview);
+            preview = null;
+        }
+
+        if (decoder != null) {
+            // Recycling waits for the running tile decode, so it's done off the main thread.
+            // Tiles queued after it find the decoder recycled and decode nothing.
+            final RegionDecoder regionDecoder = decoder;
+            decoder = null;
+            scheduler.execute(new PrioritizedJob() {
+                @Override
+                public void run() {
+                    regionDecoder.recycle();
+                }
+            }, Integer.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void onPostExecuted(Bitmap bitmap) {
+        previewTask = null;
+        if (bitmap == null) {
+            return;
+        }
+
+        if (released) {
+            DecodeBitmapTask.releaseBitmap(bitmap);
+            return;
+        }
+
+        view.setImageBitmap(bitmap);
+        if (preview != null) {
+            DecodeBitmapTask.releaseBitmap(preview);
+        }
+        preview = bitmap;
+    }
+
+    @Override
+    public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                               int oldLeft, int oldTop, int oldRight, int oldBottom)
+    {
+        if (right - left != oldRight - oldLeft || bottom - top != oldBottom - oldTop) {
+            updateTiles();
+        }
+    }
+
+    private BitmapRegionDecoder openDecoder() {
+        InputStream stream = null;
+        try {
+            stream = resources.openRawResource(resId);
+            return BitmapRegionDecoder.newInstance(stream, false);
+        } catch (IOException | Resources.NotFoundException e) {
+            return null;
+        } finally {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException e) {
+                    // Ignore
+                }
+            }
+        }
+    }
+
+    private void onDecoderReady(@NonNull BitmapRegionDecoder regionDecoder) {
+        setupJob = null;
+        if (released) {
+            regionDecoder.recycle();
+            return;
+        }
+
+        decoder = new RegionDecoder(regionDecoder);
+        view.setSourceSize(decoder.getWidth(), decoder.getHeight());
+        view.addOnLayoutChangeListener(this);
+        updateTiles();
+    }
+
+    private void onTileDecoded(@NonNull TileJob job, @NonNull Bitmap tile) {
+        if (tileJobs.get(job.key) != job || job.isCancelled() || released) {
+            BitmapPool.getInstance().put(tile);
+            return;
+        }
+
+        tileJobs.remove(job.key);
+        view.addTile(job.key, job.srcRect, tile);
+    }
+
+    /**
+     * Decodes missing visible tiles, and releases tiles which are not visible anymore.
+     */
+    private void updateTiles() {
+        final float scale = view.getSourceScale();
+        if (decoder == null || scale == 0 || !tilesEnabled) {
+            return;
+        }
+
+        int newSampleSize = 1;
+        while (scale * newSampleSize * 2 <= 1f) {
+            newSampleSize *= 2;
+        }
+
+        if (newSampleSize != sampleSize) {
+            sampleSize = newSampleSize;
+            cancelTileJobs();
+            view.clearTiles();
+        }
+
+        final Rect visible = view.getVisibleSourceRect();
+        final int tileSourceSize = TILE_SIZE * sampleSize;
+        final int centerX = visible.centerX();
+        final int centerY = visible.centerY();
+
+        final int sourceWidth = decoder.getWidth();
+        final int sourceHeight = decoder.getHeight();
+
+        // Grid is aligned to the source origin, so the same key is the same region after resize
+        final SparseArray<Rect> visibleTiles = new SparseArray<>();
+        if (!visible.isEmpty()) {
+            final int firstRow = Math.max(0, visible.top) / tileSourceSize;
+            final int lastRow = (Math.min(visible.bottom, sourceHeight) - 1) / tileSourceSize;
+            final int firstColumn = Math.max(0, visible.left) / tileSourceSize;
+            final int lastColumn = (Math.min(visible.right, sourceWidth) - 1) / tileSourceSize;
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    final int left = column * tileSourceSize;
+                    final int top = row * tileSourceSize;
+                    final Rect rect = new Rect(left, top,
+                            Math.min(left + tileSourceSize, sourceWidth),
+                            Math.min(top + tileSourceSize, sourceHeight));
+                    visibleTiles.put(row * MAX_TILE_COLUMNS + column, rect);
+                }
+            }
+        }
+
+        for (int i = tileJobs.size() - 1; i >= 0; i--) {
+            if (visibleTiles.get(tileJobs.keyAt(i)) == null) {
+                scheduler.cancel(tileJobs.valueAt(i));
+                tileJobs.removeAt(i);
+            }
+        }
+        view.retainTiles(visibleTiles);
+
+        for (int i = 0, cnt = visibleTiles.size(); i < cnt; i++) {
+            final int key = visibleTiles.keyAt(i);
+            if (view.hasTile(key) || tileJobs.get(key) != null) {
+                continue;
+            }
+
+            final Rect rect = visibleTiles.valueAt(i);
+            final TileJob job = new TileJob(decoder, key, rect, sampleSize);
+            tileJobs.put(key, job);
+
+            // Tiles closer to the center go first
+            final int distance = Math.abs(rect.centerX() - centerX) + Math.abs(rect.centerY() - centerY);
+            scheduler.execute(job, DecodeScheduler.PRIORITY_HIGHEST + distance / tileSourceSize);
+        }
+    }
+
+    private void cancelTileJobs() {
+        for (int i = 0, cnt = tileJobs.size(); i < cnt; i++) {
+            scheduler.cancel(tileJobs.valueAt(i));
+        }
+        tileJobs.clear();
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.ramotion.cardslider.examples.simple.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.support.annotation.NonNull;
+
+/**
+ * Draws bitmap with rounded corners, scaled as {@code centerCrop}, into a pooled output bitmap
+ * in a single pass through a {@link BitmapShader}.
+ * <p>
+ * Drawing state is reused and confined to the calling thread, so decode workers round
+ * cards concurrently without allocating it per card.
+ */
+class RoundedCornerCompositor {
+
+    private static final ThreadLocal<RoundedCornerCompositor> COMPOSITORS = new ThreadLocal<RoundedCornerCompositor>() {
+        @Override
+        protected RoundedCornerCompositor initialValue() {
+            return new RoundedCornerCompositor();
+        }
+    };
+
+    private final Canvas canvas = new Canvas();
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private final Matrix matrix = new Matrix();
+    private final RectF rect = new RectF();
+
+    private RoundedCornerCompositor() {}
+
+    /**
+     * @return rounded bitmap of requested size from {@link BitmapPool}. Source is not changed.
+     */
+    @NonNull
+    static Bitmap round(@NonNull Bitmap source, float radius, int width, int height) {
+        return COMPOSITORS.get().draw(source, radius, width, height);
+    }
+
+    private Bitmap draw(Bitmap source, float radius, int width, int height) {
+        final Bitmap output = BitmapPool.getInstance().get(width, height, Bitmap.Config.ARGB_8888);
+
+        final float scale = Math.max((float) width / source.getWidth(), (float) height / source.getHeight());
+        matrix.setScale(scale, scale);
+        matrix.postTranslate((width - source.getWidth() * scale) / 2f, (height - source.getHeight() * scale) / 2f);
+
+        final BitmapShader shader = new BitmapShader(source, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+        shader.setLocalMatrix(matrix);
+        paint.setShader(shader);
+
+        rect.set(0, 0, width, height);
+        canvas.setBitmap(output);
+        canvas.drawRoundRect(rect, radius, radius, paint);
+
+        // Don't keep source and output referenced by the thread
+        canvas.setBitmap(null);
+        paint.setShader(null);
+        return output;
+    }
+
+}
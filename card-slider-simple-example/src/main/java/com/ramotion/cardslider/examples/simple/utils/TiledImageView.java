@@ -0,0 +1,143 @@
+package com.ramotion.cardslider.examples.simple.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.AppCompatImageView;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+
+/**
+ * ImageView that draws full resolution tiles of a large source image over its low resolution
+ * preview. Tiles are placed as if the source was shown with {@code centerCrop} scale type.
+ *
+ * @see ProgressiveImageLoader
+ */
+public class TiledImageView extends AppCompatImageView {
+
+    private final SparseArray<Tile> tiles = new SparseArray<>();
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final RectF dstRect = new RectF();
+
+    private int sourceWidth;
+    private int sourceHeight;
+
+    private static class Tile {
+        final Rect srcRect;
+        final Bitmap bitmap;
+
+        Tile(Rect srcRect, Bitmap bitmap) {
+            this.srcRect = srcRect;
+            this.bitmap = bitmap;
+        }
+    }
+
+    public TiledImageView(Context context) {
+        super(context);
+    }
+
+    public TiledImageView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    public TiledImageView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+    }
+
+    void setSourceSize(int width, int height) {
+        if (sourceWidth != width || sourceHeight != height) {
+            sourceWidth = width;
+            sourceHeight = height;
+            clearTiles();
+        }
+    }
+
+    /**
+     * @return scale of source image to fill the view, or 0 if view or source size is unknown.
+     */
+    float getSourceScale() {
+        if (sourceWidth == 0 || sourceHeight == 0 || getWidth() == 0 || getHeight() == 0) {
+            return 0;
+        }
+        return Math.max((float) getWidth() / sourceWidth, (float) getHeight() / sourceHeight);
+    }
+
+    /**
+     * @return visible part of the source image in source coordinates.
+     */
+    @NonNull
+    Rect getVisibleSourceRect() {
+        final float scale = getSourceScale();
+        if (scale == 0) {
+            return new Rect();
+        }
+
+        final int visibleWidth = Math.min(sourceWidth, (int) Math.ceil(getWidth() / scale));
+        final int visibleHeight = Math.min(sourceHeight, (int) Math.ceil(getHeight() / scale));
+        final int left = (sourceWidth - visibleWidth) / 2;
+        final int top = (sourceHeight - visibleHeight) / 2;
+        return new Rect(left, top, left + visibleWidth, top + visibleHeight);
+    }
+
+    void addTile(int key, @NonNull Rect srcRect, @NonNull Bitmap bitmap) {
+        final Tile old = tiles.get(key);
+        if (old != null) {
+            BitmapPool.getInstance().put(old.bitmap);
+        }
+        tiles.put(key, new Tile(srcRect, bitmap));
+        invalidate();
+    }
+
+    boolean hasTile(int key) {
+        return tiles.get(key) != null;
+    }
+
+    /**
+     * Removes tiles which keys are not in {@code keep}, their bitmaps go to {@link BitmapPool}.
+     */
+    void retainTiles(@NonNull SparseArray<?> keep) {
+        for (int i = tiles.size() - 1; i >= 0; i--) {
+            if (keep.get(tiles.keyAt(i)) == null) {
+                BitmapPool.getInstance().put(tiles.valueAt(i).bitmap);
+                tiles.removeAt(i);
+            }
+        }
+        invalidate();
+    }
+
+    void clearTiles() {
+        for (int i = 0, cnt = tiles.size(); i < cnt; i++) {
+            BitmapPool.getInstance().put(tiles.valueAt(i).bitmap);
+        }
+        tiles.clear();
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        final float scale = getSourceScale();
+        if (scale == 0 || tiles.size() == 0) {
+            return;
+        }
+
+        final float dx = (getWidth() - sourceWidth * scale) / 2f;
+        final float dy = (getHeight() - sourceHeight * scale) / 2f;
+
+        for (int i = 0, cnt = tiles.size(); i < cnt; i++) {
+            final Tile tile = tiles.valueAt(i);
+            dstRect.set(
+                    dx + tile.srcRect.left * scale,
+                    dy + tile.srcRect.top * scale,
+                    dx + tile.srcRect.right * scale,
+                    dy + tile.srcRect.bottom * scale);
+            canvas.drawBitmap(tile.bitmap, null, dstRect, paint);
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+package com.ramotion.cardslider.examples.simple.utils;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CacheEntriesTest {
+
+    private static final int RES_A = 0x7f080001;
+    private static final int RES_B = 0x7f080002;
+    private static final int CONFIG = 1;
+
+    private final List<String> removed = new ArrayList<>();
+    private CacheEntries<String> entries;
+
+    @Before
+    public void setUp() {
+        removed.clear();
+        entries = new CacheEntries<>(new CacheEntries.OnRemovedListener<String>() {
+            @Override
+            public void onRemoved(@NonNull String value) {
+                removed.add(value);
+            }
+        });
+    }
+
+    @Test
+    public void exactKeyPacksAllFields() {
+        final long key = CacheEntries.exactKeyOf(RES_A, 1080, 1920, 3);
+        assertEquals(RES_A, (int) (key >>> 32));
+        assertEquals(1080, (int) (key >>> 18) & 0x3FFF);
+        assertEquals(1920, (int) (key >>> 4) & 0x3FFF);
+        assertEquals(3, (int) key & 0xF);
+    }
+
+    @Test
+    public void exactKeysDifferByEachField() {
+        final long key = CacheEntries.exactKeyOf(RES_A, 100, 200, 1);
+        assertNotEquals(key, CacheEntries.exactKeyOf(RES_B, 100, 200, 1));
+        assertNotEquals(key, CacheEntries.exactKeyOf(RES_A, 101, 200, 1));
+        assertNotEquals(key, CacheEntries.exactKeyOf(RES_A, 100, 201, 1));
+        assertNotEquals(key, CacheEntries.exactKeyOf(RES_A, 100, 200, 2));
+    }
+
+    @Test
+    public void bucketRoundsUp() {
+        assertEquals(0, CacheEntries.bucketOf(0));
+        assertEquals(1, CacheEntries.bucketOf(1));
+        assertEquals(1, CacheEntries.bucketOf(32));
+        assertEquals(2, CacheEntries.bucketOf(33));
+    }
+
+    @Test
+    public void keyOfSameBucketIsEqual() {
+        assertEquals(CacheEntries.keyOf(RES_A, 33, 64, CONFIG), CacheEntries.keyOf(RES_A, 60, 50, CONFIG));
+        assertNotEquals(CacheEntries.keyOf(RES_A, 32, 64, CONFIG), CacheEntries.keyOf(RES_A, 33, 64, CONFIG));
+    }
+
+    @Test
+    public void putAccountsSize() {
+        assertTrue(entries.put(RES_A, 100, 100, CONFIG, "a", 10, 0));
+        assertTrue(entries.put(RES_B, 100, 100, CONFIG, "b", 20, 1));
+
+        assertEquals(30, entries.size());
+        assertEquals(2, entries.count());
+    }
+
+    @Test
+    public void putOfExistingKeyIsRejected() {
+        assertTrue(entries.put(RES_A, 100, 100, CONFIG, "a", 10, 0));
+        assertFalse(entries.put(RES_A, 110, 120, CONFIG, "a2", 12, 0));
+
+        assertEquals(10, entries.size());
+        assertEquals("a", entries.get(RES_A, 100, 100, CONFIG, 0));
+    }
+
+    @Test
+    public void getOfOtherBucketOrConfigMisses() {
+        entries.put(RES_A, 100, 100, CONFIG, "a", 10, 0);
+
+        assertNull(entries.get(RES_A, 200, 100, CONFIG, 0));
+        assertNull(entries.get(RES_A, 100, 100, CONFIG + 1, 0));
+        assertNull(entries.get(RES_B, 100, 100, CONFIG, 0));
+    }
+
+    @Test
+    public void trimToSizeEvictsLeastRecentlyUsed() {
+        entries.put(RES_A, 100, 100, CONFIG, "a", 10, 0);
+        entries.put(RES_B, 100, 100, CONFIG, "b", 10, 1);
+        entries.put(RES_A, 200, 200, CONFIG, "a2", 10, 2);
+
+        // Access makes "a" the most recently used
+        entries.get(RES_A, 100, 100, CONFIG, 0);
+
+        assertEquals(2, entries.trimToSize(15));
+        assertEquals(10, entries.size());
+        assertEquals(1, entries.count());
+        assertEquals(2, removed.size());
+        assertEquals("b", removed.get(0));
+        assertEquals("a2", removed.get(1));
+        assertEquals("a", entries.get(RES_A, 100, 100, CONFIG, 0));
+    }
+
+    @Test
+    public void trimToSizeOfFittingCacheEvictsNothing() {
+        entries.put(RES_A, 100, 100, CONFIG, "a", 10, 0);
+
+        assertEquals(0, entries.trimToSize(10));
+        assertTrue(removed.isEmpty());
+    }
+
+    @Test
+    public void trimRemovesFarEntries() {
+        entries.put(RES_A, 100, 100, CONFIG, "near", 10, 5);
+        entries.put(RES_A, 200, 200, CONFIG, "edge", 10, 7);
+        entries.put(RES_B, 100, 100, CONFIG, "far", 10, 8);
+        entries.put(RES_B, 200, 200, CONFIG, "none", 10, CacheEntries.NO_POSITION);
+
+        entries.trim(5, 2);
+
+        assertEquals(20, entries.size());
+        assertEquals(2, removed.size());
+        assertTrue(removed.contains("far"));
+        assertTrue(removed.contains("none"));
+        assertEquals("edge", entries.get(RES_A, 200, 200, CONFIG, 7));
+    }
+
+    @Test
+    public void trimOfNegativeDistanceRemovesAll() {
+        entries.put(RES_A, 100, 100, CONFIG, "a", 10, 5);
+        entries.put(RES_B, 100, 100, CONFIG, "b", 10, 5);
+
+        entries.trim(5, -1);
+
+        assertEquals(0, entries.size());
+        assertEquals(0, entries.count());
+        assertEquals(2, removed.size());
+    }
+
+    @Test
+    public void getUpdatesPosition() {
+        entries.put(RES_A, 100, 100, CONFIG, "a", 10, 0);
+        entries.get(RES_A, 100, 100, CONFIG, 10);
+
+        entries.trim(10, 0);
+        assertTrue(removed.isEmpty());
+    }
+
+    @Test
+    public void getLargerReturnsSmallestFittingVariant() {
+        entries.put(RES_A, 100, 100, CONFIG, "small", 1, 0);
+        entries.put(RES_A, 400, 400, CONFIG, "large", 16, 0);
+        entries.put(RES_A, 200, 200, CONFIG, "medium", 4, 0);
+
+        assertEquals("medium", entries.getLarger(RES_A, 150, 150, CONFIG, 0));
+        assertEquals("small", entries.getLarger(RES_A, 50, 50, CONFIG, 0));
+        assertEquals("large", entries.getLarger(RES_A, 300, 150, CONFIG, 0));
+        assertNull(entries.getLarger(RES_A, 500, 100, CONFIG, 0));
+    }
+
+    @Test
+    public void getLargerIgnoresOtherConfig() {
+        entries.put(RES_A, 200, 200, CONFIG + 1, "other", 4, 0);
+
+        assertNull(entries.getLarger(RES_A, 100, 100, CONFIG, 0));
+    }
+
+    @Test
+    public void getLargerSkipsRemovedVariants() {
+        entries.put(RES_A, 200, 200, CONFIG, "medium", 4, 0);
+        entries.put(RES_A, 300, 300, CONFIG, "upper", 9, 10);
+        entries.put(RES_A, 400, 400, CONFIG, "large", 16, 0);
+
+        // Removes the middle entry of variant list
+        entries.trim(0, 2);
+
+        assertEquals(2, entries.count());
+        assertEquals("large", entries.getLarger(RES_A, 250, 250, CONFIG, 0));
+        assertEquals("medium", entries.getLarger(RES_A, 150, 150, CONFIG, 0));
+    }
+
+}
@@ -0,0 +1,12 @@
+# Consumer ProGuard/R8 rules of Card Slider library, applied to apps that depend on it.
+
+# CardSliderLayoutManager is instantiated by RecyclerView from "app:layoutManager" XML attribute.
+-keep public class com.ramotion.cardslider.CardSliderLayoutManager {
+    public <init>(android.content.Context, android.util.AttributeSet, int, int);
+}
+
+# ViewUpdater implementations are instantiated by class name from "app:viewUpdater" XML attribute,
+# unless a ViewUpdater.Factory is registered for them in ViewUpdaterRegistry.
+-keep public class * implements com.ramotion.cardslider.CardSliderLayoutManager$ViewUpdater {
+    public <init>();
+}
@@ -0,0 +1,188 @@
+package com.ramotion.cardslider;
+
+import android.content.Context;
+import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.RecyclerView;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.WindowManager;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Watches frame durations of a {@link CardSliderLayoutManager} slider with {@link Choreographer}
+ * while it is scrolled, and lowers slider quality step by step when frames are consistently over budget.
+ * Full quality is restored when scrolling stops, or when slider is detached from window.
+ * <p>
+ * Quality levels, from best to worst:
+ * {@link #QUALITY_FULL}, {@link #QUALITY_NO_ELEVATION}, {@link #QUALITY_NO_FAR_TRANSLATION},
+ * {@link #QUALITY_LOW_RES_IMAGES}. Current level is available to ViewUpdater by
+ * {@link CardSliderLayoutManager#getQualityLevel()}.
+ */
+public class AdaptiveQualityHelper extends RecyclerView.OnScrollListener
+	implements Choreographer.FrameCallback, View.OnAttachStateChangeListener {
+
+	/** All visual effects enabled. */
+	public static final int QUALITY_FULL = 0;
+	/** Z / elevation is not updated on scroll. */
+	public static final int QUALITY_NO_ELEVATION = 1;
+	/** In addition, translationY of cards far below active card is not updated on scroll. */
+	public static final int QUALITY_NO_FAR_TRANSLATION = 2;
+	/** In addition, adapter is asked to show lower resolution images. */
+	public static final int QUALITY_LOW_RES_IMAGES = 3;
+
+	private static final float DEFAULT_REFRESH_RATE = 60f;
+	private static final float BUDGET_TOLERANCE = 1.25f;
+	private static final int SLOW_FRAMES_TO_DEGRADE = 6;
+
+	/**
+	 * Listener of quality level changes, e.g. to switch adapter to lower resolution images.
+	 */
+	public interface OnQualityLevelChangeListener {
+		/**
+		 * @param level New quality level, one of QUALITY_* constants.
+		 */
+		void onQualityLevelChanged(int level);
+	}
+
+	private final Choreographer choreographer = Choreographer.getInstance();
+
+	private RecyclerView recyclerView;
+	private OnQualityLevelChangeListener listener;
+
+	private long frameBudgetNanos;
+	private long lastFrameTimeNanos;
+	private int slowFrames;
+	private int qualityLevel = QUALITY_FULL;
+	private boolean isWatching;
+
+	/**
+	 * Attaches the {@link AdaptiveQualityHelper} to the provided RecyclerView.
+	 * You can call this method with {@code null} to detach it from the current RecyclerView.
+	 *
+	 * @throws InvalidParameterException if provided RecyclerView has LayoutManager which is not
+	 * instance of CardSliderLayoutManager
+	 */
+	public void attachToRecyclerView(@Nullable RecyclerView recyclerView) {
+		if (this.recyclerView == recyclerView) {
+			return;
+		}
+
+		if (recyclerView != null && !(recyclerView.getLayoutManager() instanceof CardSliderLayoutManager)) {
+			throw new InvalidParameterException("LayoutManager must be instance of CardSliderLayoutManager");
+		}
+
+		if (this.recyclerView != null) {
+			this.recyclerView.removeOnScrollListener(this);
+			this.recyclerView.removeOnAttachStateChangeListener(this);
+			stopWatching();
+			setQualityLevel(QUALITY_FULL);
+		}
+
+		this.recyclerView = recyclerView;
+
+		if (recyclerView != null) {
+			frameBudgetNanos = (long) (BUDGET_TOLERANCE * 1_000_000_000L / getRefreshRate(recyclerView.getContext()));
+			recyclerView.addOnScrollListener(this);
+			recyclerView.addOnAttachStateChangeListener(this);
+		}
+	}
+
+	public void setOnQualityLevelChangeListener(@Nullable OnQualityLevelChangeListener listener) {
+		this.listener = listener;
+	}
+
+	public int getQualityLevel() {
+		return qualityLevel;
+	}
+
+	@Override
+	public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+		if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+			stopWatching();
+			setQualityLevel(QUALITY_FULL);
+		} else {
+			startWatching();
+		}
+	}
+
+	@Override
+	public void onViewAttachedToWindow(View view) {
+	}
+
+	@Override
+	public void onViewDetachedFromWindow(View view) {
+		// Scroll state may never return to idle, e.g. slider is detached in the middle of fling
+		stopWatching();
+		setQualityLevel(QUALITY_FULL);
+	}
+
+	@Override
+	public void doFrame(long frameTimeNanos) {
+		if (!isWatching) {
+			return;
+		}
+
+		if (recyclerView == null || !ViewCompat.isAttachedToWindow(recyclerView)) {
+			stopWatching();
+			return;
+		}
+
+		if (lastFrameTimeNanos != 0) {
+			final long frameDuration = frameTimeNanos - lastFrameTimeNanos;
+			if (frameDuration > frameBudgetNanos) {
+				slowFrames++;
+			} else if (slowFrames > 0) {
+				slowFrames--;
+			}
+
+			if (slowFrames >= SLOW_FRAMES_TO_DEGRADE && qualityLevel < QUALITY_LOW_RES_IMAGES) {
+				slowFrames = 0;
+				setQualityLevel(qualityLevel + 1);
+			}
+		}
+
+		lastFrameTimeNanos = frameTimeNanos;
+		choreographer.postFrameCallback(this);
+	}
+
+	private void startWatching() {
+		if (isWatching) {
+			return;
+		}
+
+		isWatching = true;
+		lastFrameTimeNanos = 0;
+		slowFrames = 0;
+		choreographer.postFrameCallback(this);
+	}
+
+	private void stopWatching() {
+		isWatching = false;
+		choreographer.removeFrameCallback(this);
+	}
+
+	private void setQualityLevel(int level) {
+		if (qualityLevel == level) {
+			return;
+		}
+
+		qualityLevel = level;
+
+		if (recyclerView != null) {
+			((CardSliderLayoutManager) recyclerView.getLayoutManager()).setQualityLevel(level);
+		}
+
+		if (listener != null) {
+			listener.onQualityLevelChanged(level);
+		}
+	}
+
+	private static float getRefreshRate(Context context) {
+		final WindowManager wm = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+		final float refreshRate = wm == null ? 0 : wm.getDefaultDisplay().getRefreshRate();
+		return refreshRate < 1f ? DEFAULT_REFRESH_RATE : refreshRate;
+	}
+
+}
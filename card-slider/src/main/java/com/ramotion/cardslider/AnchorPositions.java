@@ -0,0 +1,62 @@
+package com.ramotion.cardslider;
+
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * Position of the active card after adapter changes, so it stays anchored to its item.
+ * Used by {@link CardSliderLayoutManager} item callbacks.
+ */
+final class AnchorPositions {
+
+	private AnchorPositions() {
+	}
+
+	/**
+	 * @return anchor position after {@code itemCount} items were inserted at {@code positionStart}.
+	 */
+	static int afterInsert(int anchorPos, int positionStart, int itemCount) {
+		if (anchorPos == RecyclerView.NO_POSITION || positionStart > anchorPos) {
+			return anchorPos;
+		}
+		return anchorPos + itemCount;
+	}
+
+	/**
+	 * If the anchor itself is removed, the next card takes its place, or the previous one at the end.
+	 *
+	 * @param newItemCount Item count after removal.
+	 * @return anchor position after {@code count} items were removed at {@code positionStart},
+	 * or {@link RecyclerView#NO_POSITION} if no items are left.
+	 */
+	static int afterRemove(int anchorPos, int positionStart, int count, int newItemCount) {
+		if (anchorPos == RecyclerView.NO_POSITION || positionStart > anchorPos) {
+			return anchorPos;
+		}
+		if (positionStart + count <= anchorPos) {
+			return anchorPos - count;
+		}
+		return Math.min(positionStart, newItemCount - 1);
+	}
+
+	/**
+	 * @return anchor position after {@code itemCount} items were moved from {@code from} to {@code to}.
+	 */
+	static int afterMove(int anchorPos, int from, int to, int itemCount) {
+		if (anchorPos == RecyclerView.NO_POSITION) {
+			return anchorPos;
+		}
+		if (anchorPos >= from && anchorPos < from + itemCount) {
+			return to + anchorPos - from;
+		}
+		
+		int result = anchorPos;
+		if (from < result) {
+			result -= itemCount;
+		}
+		if (to <= result) {
+			result += itemCount;
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,155 @@
+package com.ramotion.cardslider;
+
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Base adapter of slider content which is replaced as a whole, e.g. by results of a query.
+ * <p>
+ * {@link #submitList(List)} computes difference between current and new list on a background
+ * thread, and dispatches it as batched range notifications on the main thread. Unlike
+ * {@code notifyDataSetChanged()}, bound cards of unchanged items keep their holders and content,
+ * and {@link CardSliderLayoutManager} keeps the active card in place.
+ *
+ * @param <T>  Item type.
+ * @param <VH> ViewHolder type.
+ */
+public abstract class AsyncDiffAdapter<T, VH extends RecyclerView.ViewHolder> extends RecyclerView.Adapter<VH> {
+
+	/**
+	 * Compares items of old and new lists. Called on a background thread.
+	 */
+	public interface ItemCallback<T> {
+		/**
+		 * @return {@code true} if items represent the same entity, e.g. have the same ID.
+		 */
+		boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem);
+
+		/**
+		 * Called only for the same items.
+		 *
+		 * @return {@code true} if bound card of the old item shows new item as is.
+		 */
+		boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem);
+	}
+
+	private final Handler mainHandler = new Handler(Looper.getMainLooper());
+	private final ItemCallback<T> itemCallback;
+	private final Executor executor;
+
+	private List<T> items = Collections.emptyList();
+	private int generation;
+
+	protected AsyncDiffAdapter(@NonNull ItemCallback<T> itemCallback) {
+		this(itemCallback, AsyncTask.THREAD_POOL_EXECUTOR);
+	}
+
+	/**
+	 * @param itemCallback Item comparator.
+	 * @param executor     Executor of difference computation.
+	 */
+	protected AsyncDiffAdapter(@NonNull ItemCallback<T> itemCallback, @NonNull Executor executor) {
+		this.itemCallback = itemCallback;
+		this.executor = executor;
+	}
+
+	/**
+	 * Replaces content of adapter. Must be called on the main thread, and submitted list must not be
+	 * changed afterwards. Adapter keeps the previous list until difference is computed, result of
+	 * a list submitted before the latest one is dropped.
+	 *
+	 * @param newItems New content, {@code null} clears adapter.
+	 */
+	public void submitList(@Nullable final List<T> newItems) {
+		if (newItems == items) {
+			return;
+		}
+
+		final int runGeneration = ++generation;
+
+		if (newItems == null || newItems.isEmpty()) {
+			final int count = items.size();
+			items = Collections.emptyList();
+			if (count > 0) {
+				notifyItemRangeRemoved(0, count);
+			}
+			return;
+		}
+
+		if (items.isEmpty()) {
+			items = Collections.unmodifiableList(newItems);
+			notifyItemRangeInserted(0, newItems.size());
+			return;
+		}
+
+		final List<T> oldItems = items;
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+					@Override
+					public int getOldListSize() {
+						return oldItems.size();
+					}
+
+					@Override
+					public int getNewListSize() {
+						return newItems.size();
+					}
+
+					@Override
+					public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+						return itemCallback.areItemsTheSame(oldItems.get(oldItemPosition), newItems.get(newItemPosition));
+					}
+
+					@Override
+					public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+						return itemCallback.areContentsTheSame(oldItems.get(oldItemPosition), newItems.get(newItemPosition));
+					}
+				});
+
+				mainHandler.post(new Runnable() {
+					@Override
+					public void run() {
+						if (generation != runGeneration) {
+							// Newer list was submitted
+							return;
+						}
+
+						items = Collections.unmodifiableList(newItems);
+						// Adjacent operations are merged into range notifications
+						result.dispatchUpdatesTo(AsyncDiffAdapter.this);
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * @return current content, without lists which are still compared.
+	 */
+	@NonNull
+	public List<T> getItems() {
+		return items;
+	}
+
+	@NonNull
+	public T getItem(int position) {
+		return items.get(position);
+	}
+
+	@Override
+	public int getItemCount() {
+		return items.size();
+	}
+
+}
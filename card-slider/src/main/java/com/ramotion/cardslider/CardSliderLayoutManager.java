@@ -16,8 +16,6 @@ import android.util.SparseArray;
 import android.util.SparseIntArray;
 import android.view.View;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.LinkedList;
 
 /**
@@ -29,21 +27,34 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 	private static final int DEFAULT_ACTIVE_CARD_TOP_OFFSET = 50;
 	private static final int DEFAULT_CARD_HEIGHT = 148;
 	private static final int DEFAULT_CARDS_GAP = 12;
-	private static final int TOP_CARD_COUNT = 2;
+	private static final int DEFAULT_TOP_CARD_COUNT = 2;
+	private static final int DEFAULT_MAX_BOTTOM_CARD_COUNT = Integer.MAX_VALUE;
+	private static final int DEFAULT_INITIAL_PREFETCH_ITEM_COUNT = DEFAULT_TOP_CARD_COUNT + 3;
 	
 	private final SparseArray<View> viewCache = new SparseArray<>();
 	private final SparseIntArray cardsYCoords = new SparseIntArray();
 	
 	private int cardHeight;
+	private int laidOutCardWidth;
+	private int laidOutCardHeight;
 	private int activeCardTop;
 	private int activeCardBottom;
 	private int activeCardCenter;
 	
 	private float cardsGap;
 	
+	private int topCardCount;
+	private int maxBottomCardCount;
+	
 	private int scrollRequestedPosition = 0;
 	
+	private int qualityLevel = AdaptiveQualityHelper.QUALITY_FULL;
+	
+	private boolean recycleChildrenOnDetach;
+	private int initialPrefetchItemCount = DEFAULT_INITIAL_PREFETCH_ITEM_COUNT;
+	
 	private ViewUpdater viewUpdater;
+	private OnCardSizeChangeListener cardSizeChangeListener;
 	private RecyclerView recyclerView;
 	
 	/**
@@ -63,6 +74,83 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 		 *                 0 is active card. 1 is first right card, and -1 is first left (stacked) card.
 		 */
 		void updateView(@NonNull View view, float position);
+		
+		/**
+		 * Creates ViewUpdater instances without reflection.
+		 *
+		 * @see ViewUpdaterRegistry
+		 */
+		interface Factory {
+			@NonNull
+			ViewUpdater create();
+		}
+		
+		/**
+		 * Optional ViewUpdater extension, notified when card geometry is changed at runtime.
+		 */
+		interface GeometryListener {
+			/**
+			 * Called when card height, active card offset or gap is changed, before attached cards are
+			 * laid out again.
+			 */
+			void onGeometryChanged(@NonNull CardSliderLayoutManager lm);
+		}
+		
+		/**
+		 * Optional ViewUpdater extension, which resolves child views or other handles of a card once,
+		 * instead of looking them up on every update. Target is resolved when card is updated
+		 * for the first time, and kept in a tag of card view.
+		 *
+		 * @param <T> Type of transform target.
+		 */
+		interface TransformTargetResolver<T> {
+			/**
+			 * Called once per card view and ViewUpdater.
+			 *
+			 * @param view Card view.
+			 * @return Handles of card, passed to {@link #updateView(View, Object, float)}.
+			 */
+			@NonNull
+			T resolveTransformTarget(@NonNull View view);
+			
+			/**
+			 * Called on view update (scroll, layout) instead of {@link ViewUpdater#updateView(View, float)}.
+			 *
+			 * @param view     Updating view
+			 * @param target   Target resolved for the view.
+			 * @param position Position of card relative to the current active card position of the layout manager.
+			 */
+			void updateView(@NonNull View view, @NonNull T target, float position);
+		}
+	}
+	
+	/**
+	 * Transform target of a card, with ViewUpdater which resolved it. Cards may be moved between
+	 * sliders with different ViewUpdaters through shared pool.
+	 */
+	private static class TransformTargetTag {
+		final ViewUpdater resolver;
+		final Object target;
+		
+		TransformTargetTag(ViewUpdater resolver, Object target) {
+			this.resolver = resolver;
+			this.target = target;
+		}
+	}
+	
+	/**
+	 * Listener of card size changes, e.g. to load content of the new size into attached cards.
+	 */
+	public interface OnCardSizeChangeListener {
+		/**
+		 * Called on the main thread after cards were laid out with the new size. Attached cards
+		 * are kept and not bound again, so adapter can request their new content by a partial
+		 * {@link RecyclerView.Adapter#notifyItemRangeChanged(int, int, Object)}.
+		 *
+		 * @param cardWidth  New card width.
+		 * @param cardHeight New card height.
+		 */
+		void onCardSizeChanged(int cardWidth, int cardHeight);
 	}
 	
 	private static class SavedState implements Parcelable {
@@ -121,6 +209,8 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 	 * See {@link R.styleable#CardSlider_activeCardLeftOffset}
 	 * See {@link R.styleable#CardSlider_cardHeight}
 	 * See {@link R.styleable#CardSlider_cardsGap}
+	 * See {@link R.styleable#CardSlider_topCardCount}
+	 * See {@link R.styleable#CardSlider_maxBottomCardCount}
 	 */
 	public CardSliderLayoutManager(@NonNull Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
 		final float density = context.getResources().getDisplayMetrics().density;
@@ -130,11 +220,14 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 		final float defaultCardsGap = DEFAULT_CARDS_GAP * density;
 		
 		if (attrs == null) {
-			initialize(defaultActiveCardLeft, defaultCardWidth, defaultCardsGap, null);
+			initialize(defaultActiveCardLeft, defaultCardWidth, defaultCardsGap,
+				DEFAULT_TOP_CARD_COUNT, DEFAULT_MAX_BOTTOM_CARD_COUNT, null);
 		} else {
 			int attrCardWidth;
 			int attrActiveCardLeft;
 			float attrCardsGap;
+			int attrTopCardCount;
+			int attrMaxBottomCardCount;
 			String viewUpdateClassName;
 			
 			final TypedArray a = context.getTheme().obtainStyledAttributes(attrs, R.styleable.CardSlider, 0, 0);
@@ -142,13 +235,16 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 				attrCardWidth = a.getDimensionPixelSize(R.styleable.CardSlider_cardHeight, defaultCardWidth);
 				attrActiveCardLeft = a.getDimensionPixelSize(R.styleable.CardSlider_activeCardLeftOffset, defaultActiveCardLeft);
 				attrCardsGap = a.getDimension(R.styleable.CardSlider_cardsGap, defaultCardsGap);
+				attrTopCardCount = a.getInt(R.styleable.CardSlider_topCardCount, DEFAULT_TOP_CARD_COUNT);
+				attrMaxBottomCardCount = a.getInt(R.styleable.CardSlider_maxBottomCardCount, DEFAULT_MAX_BOTTOM_CARD_COUNT);
 				viewUpdateClassName = a.getString(R.styleable.CardSlider_viewUpdater);
 			} finally {
 				a.recycle();
 			}
 			
 			final ViewUpdater viewUpdater = loadViewUpdater(context, viewUpdateClassName, attrs);
-			initialize(attrActiveCardLeft, attrCardWidth, attrCardsGap, viewUpdater);
+			initialize(attrActiveCardLeft, attrCardWidth, attrCardsGap,
+				attrTopCardCount, attrMaxBottomCardCount, viewUpdater);
 		}
 	}
 	
@@ -160,21 +256,99 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 	 * @param cardsGap      Distance between cards. Default value is 12dp.
 	 */
 	public CardSliderLayoutManager(int activeCardTop, int cardHeight, float cardsGap) {
-		initialize(activeCardTop, cardHeight, cardsGap, null);
+		this(activeCardTop, cardHeight, cardsGap, DEFAULT_TOP_CARD_COUNT, DEFAULT_MAX_BOTTOM_CARD_COUNT);
+	}
+	
+	/**
+	 * Creates CardSliderLayoutManager with specified values in pixels and limited number of attached cards.
+	 *
+	 * @param activeCardTop      Active card offset from start of RecyclerView. Default value is 50dp.
+	 * @param cardHeight         Card width. Default value is 148dp.
+	 * @param cardsGap           Distance between cards. Default value is 12dp.
+	 * @param topCardCount       Number of stacked cards above active card. Default value is 2.
+	 * @param maxBottomCardCount Maximum number of attached cards below active card. Not limited by default.
+	 */
+	public CardSliderLayoutManager(int activeCardTop, int cardHeight, float cardsGap,
+								   int topCardCount, int maxBottomCardCount) {
+		initialize(activeCardTop, cardHeight, cardsGap, topCardCount, maxBottomCardCount, null);
+	}
+	
+	private void initialize(int top, int height, float gap, int topCount, int maxBottomCount,
+							@Nullable ViewUpdater updater) {
+		if (topCount < 1) {
+			throw new IllegalArgumentException("topCardCount must be positive: " + topCount);
+		}
+		if (maxBottomCount < 0) {
+			throw new IllegalArgumentException("maxBottomCardCount must not be negative: " + maxBottomCount);
+		}
+		
+		applyGeometry(top, height, gap);
+		this.topCardCount = topCount;
+		this.maxBottomCardCount = maxBottomCount;
+		
+		this.viewUpdater = updater;
+		if (this.viewUpdater == null) {
+			this.viewUpdater = new DefaultViewUpdater();
+		}
+		viewUpdater.onLayoutManagerInitialized(this);
 	}
 	
-	private void initialize(int top, int height, float gap, @Nullable ViewUpdater updater) {
+	private void applyGeometry(int top, int height, float gap) {
 		this.cardHeight = height;
 		this.activeCardTop = top;
 		this.activeCardBottom = activeCardTop + cardHeight;
 		this.activeCardCenter = activeCardTop + ((this.activeCardBottom - activeCardTop) / 2);
 		this.cardsGap = gap;
+	}
+	
+	/**
+	 * Changes card geometry at runtime, e.g. on window resize. Attached cards are laid out again
+	 * in place, without rebinding. If card height is changed,
+	 * {@link OnCardSizeChangeListener} is notified after layout.
+	 *
+	 * @param activeCardTop Active card offset from start of RecyclerView.
+	 * @param cardHeight    Card height.
+	 * @param cardsGap      Distance between cards.
+	 */
+	public void setCardGeometry(int activeCardTop, int cardHeight, float cardsGap) {
+		if (this.activeCardTop == activeCardTop && this.cardHeight == cardHeight && this.cardsGap == cardsGap) {
+			return;
+		}
 		
-		this.viewUpdater = updater;
-		if (this.viewUpdater == null) {
-			this.viewUpdater = new DefaultViewUpdater();
+		final int anchorPos = getActiveCardPosition();
+		
+		applyGeometry(activeCardTop, cardHeight, cardsGap);
+		
+		if (viewUpdater instanceof ViewUpdater.GeometryListener) {
+			((ViewUpdater.GeometryListener) viewUpdater).onGeometryChanged(this);
 		}
-		viewUpdater.onLayoutManagerInitialized(this);
+		
+		cardsYCoords.clear();
+		if (anchorPos != RecyclerView.NO_POSITION) {
+			scrollRequestedPosition = anchorPos;
+		}
+		requestLayout();
+	}
+	
+	/**
+	 * @see #setCardGeometry(int, int, float)
+	 */
+	public void setActiveCardTop(int activeCardTop) {
+		setCardGeometry(activeCardTop, cardHeight, cardsGap);
+	}
+	
+	/**
+	 * @see #setCardGeometry(int, int, float)
+	 */
+	public void setCardHeight(int cardHeight) {
+		setCardGeometry(activeCardTop, cardHeight, cardsGap);
+	}
+	
+	/**
+	 * @see #setCardGeometry(int, int, float)
+	 */
+	public void setCardsGap(float cardsGap) {
+		setCardGeometry(activeCardTop, cardHeight, cardsGap);
 	}
 	
 	@Override
@@ -197,26 +371,27 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 		
 		int anchorPos = getActiveCardPosition();
 		
-		if (state.isPreLayout()) {
-			final LinkedList<Integer> removed = new LinkedList<>();
-			for (int i = 0, cnt = getChildCount(); i < cnt; i++) {
-				final View child = getChildAt(i);
-				final boolean isRemoved = ((RecyclerView.LayoutParams) child.getLayoutParams()).isItemRemoved();
-				if (isRemoved) {
-					removed.add(getPosition(child));
-				}
-			}
+		final int cardWidth = getCardWidth();
+		if (!state.isPreLayout() && (cardWidth != laidOutCardWidth || cardHeight != laidOutCardHeight)) {
+			final boolean resized = laidOutCardWidth != 0 || laidOutCardHeight != 0;
+			laidOutCardWidth = cardWidth;
+			laidOutCardHeight = cardHeight;
 			
-			if (removed.contains(anchorPos)) {
-				final int first = removed.getFirst();
-				final int last = removed.getLast();
-				
-				final int left = first - 1;
-				final int right = last == getItemCount() + removed.size() - 1 ? RecyclerView.NO_POSITION : last;
-				
-				anchorPos = Math.max(left, right);
+			if (resized && cardSizeChangeListener != null && recyclerView != null) {
+				// Adapter can't be notified while RecyclerView is computing a layout
+				recyclerView.post(new Runnable() {
+					@Override
+					public void run() {
+						if (cardSizeChangeListener != null) {
+							cardSizeChangeListener.onCardSizeChanged(laidOutCardWidth, laidOutCardHeight);
+						}
+					}
+				});
 			}
-			
+		}
+		
+		if (state.isPreLayout()) {
+			// Anchor was moved by item callbacks already, if it was affected by adapter changes
 			scrollRequestedPosition = anchorPos;
 		}
 		
@@ -303,11 +478,38 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 		startSmoothScroll(scroller);
 	}
 	
+	/**
+	 * Keeps the active card anchored to its item. Item callbacks are called for every operation
+	 * of a batched update, in order, before pre-layout.
+	 */
+	@Override
+	public void onItemsAdded(RecyclerView recyclerView, int positionStart, int itemCount) {
+		// Coordinates belong to previous positions, cards are laid out by slots of the anchor instead
+		cardsYCoords.clear();
+		
+		final int anchorPos = getActiveCardPosition();
+		updateAnchor(anchorPos, AnchorPositions.afterInsert(anchorPos, positionStart, itemCount));
+	}
+	
 	@Override
 	public void onItemsRemoved(RecyclerView recyclerView, int positionStart, int count) {
+		cardsYCoords.clear();
+		
 		final int anchorPos = getActiveCardPosition();
-		if (positionStart + count <= anchorPos) {
-			scrollRequestedPosition = anchorPos - 1;
+		updateAnchor(anchorPos, AnchorPositions.afterRemove(anchorPos, positionStart, count, getItemCount()));
+	}
+	
+	@Override
+	public void onItemsMoved(RecyclerView recyclerView, int from, int to, int itemCount) {
+		cardsYCoords.clear();
+		
+		final int anchorPos = getActiveCardPosition();
+		updateAnchor(anchorPos, AnchorPositions.afterMove(anchorPos, from, to, itemCount));
+	}
+	
+	private void updateAnchor(int anchorPos, int newAnchorPos) {
+		if (newAnchorPos != anchorPos) {
+			scrollRequestedPosition = newAnchorPos;
 		}
 	}
 	
@@ -336,9 +538,32 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 	@Override
 	public void onDetachedFromWindow(RecyclerView view, RecyclerView.Recycler recycler) {
 		super.onDetachedFromWindow(view, recycler);
+		if (recycleChildrenOnDetach) {
+			scrollRequestedPosition = getActiveCardPosition();
+			removeAndRecycleAllViews(recycler);
+			recycler.clear();
+		}
 		recyclerView = null;
 	}
 	
+	@Override
+	public void collectInitialPrefetchPositions(int adapterItemCount, LayoutPrefetchRegistry layoutPrefetchRegistry) {
+		if (adapterItemCount == 0) {
+			return;
+		}
+		
+		final int anchorPos = scrollRequestedPosition == RecyclerView.NO_POSITION
+			? 0 : Math.min(scrollRequestedPosition, adapterItemCount - 1);
+		
+		// The same range as laid out by fillLeft() and fillRight()
+		final int first = getFirstFilledPosition(anchorPos);
+		final long lastFilled = (long) anchorPos + maxBottomCardCount + 1;
+		final int last = (int) Math.min(Math.min(adapterItemCount, lastFilled), first + initialPrefetchItemCount);
+		for (int pos = first; pos < last; pos++) {
+			layoutPrefetchRegistry.addPosition(pos, 0);
+		}
+	}
+	
 	/**
 	 * @return active card position or RecyclerView.NO_POSITION
 	 */
@@ -415,10 +640,87 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 		return cardHeight;
 	}
 	
+	/**
+	 * Returns width of card slot. It is known as soon as RecyclerView is measured, so adapter
+	 * can use it with {@link #getCardHeight()} to load content of correct size while binding.
+	 * Attached cards are not bound again when card size changes, see {@link OnCardSizeChangeListener}.
+	 *
+	 * @return Card width, or 0 if RecyclerView is not measured yet.
+	 */
+	public int getCardWidth() {
+		return Math.max(0, getWidth() - getPaddingLeft() - getPaddingRight());
+	}
+	
 	public float getCardsGap() {
 		return cardsGap;
 	}
 	
+	/**
+	 * Sets quality level of card transformations, applied by ViewUpdater.
+	 * Attached cards are updated when quality is raised.
+	 *
+	 * @param level One of AdaptiveQualityHelper.QUALITY_* constants.
+	 * @see AdaptiveQualityHelper
+	 */
+	public void setQualityLevel(int level) {
+		final boolean isRaised = level < qualityLevel;
+		qualityLevel = level;
+		
+		if (isRaised && getChildCount() != 0) {
+			updateViewScale();
+		}
+	}
+	
+	public int getQualityLevel() {
+		return qualityLevel;
+	}
+	
+	public int getTopCardCount() {
+		return topCardCount;
+	}
+	
+	public int getMaxBottomCardCount() {
+		return maxBottomCardCount;
+	}
+	
+	/**
+	 * Set whether CardSliderLayoutManager will recycle its children when it is detached from
+	 * RecyclerView. Enable it when several sliders share one {@link RecyclerView.RecycledViewPool},
+	 * e.g. sliders inside a vertical feed, so detached sliders give their cards back to the pool.
+	 * Active card position is kept and restored on the next layout.
+	 *
+	 * @param recycleChildrenOnDetach Whether children should be recycled in detach or not.
+	 * @see SharedCardPool
+	 */
+	public void setRecycleChildrenOnDetach(boolean recycleChildrenOnDetach) {
+		this.recycleChildrenOnDetach = recycleChildrenOnDetach;
+	}
+	
+	public boolean getRecycleChildrenOnDetach() {
+		return recycleChildrenOnDetach;
+	}
+	
+	/**
+	 * @param listener Listener of card size changes, or {@code null} to remove it.
+	 */
+	public void setOnCardSizeChangeListener(@Nullable OnCardSizeChangeListener listener) {
+		this.cardSizeChangeListener = listener;
+	}
+	
+	/**
+	 * Sets the number of cards to prefetch in {@link #collectInitialPrefetchPositions}, which
+	 * defines how many cards will be created and bound before a nested slider becomes visible.
+	 *
+	 * @param itemCount Number of cards to prefetch. Default value is 5.
+	 */
+	public void setInitialPrefetchItemCount(int itemCount) {
+		this.initialPrefetchItemCount = Math.max(0, itemCount);
+	}
+	
+	public int getInitialPrefetchItemCount() {
+		return initialPrefetchItemCount;
+	}
+	
 	public LinearSmoothScroller getSmoothScroller(final RecyclerView recyclerView) {
 		return new LinearSmoothScroller(recyclerView.getContext()) {
 			@Override
@@ -469,30 +771,16 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 		
 		ViewUpdater updater;
 		try {
-			final ClassLoader classLoader = context.getClassLoader();
-			
-			final Class<? extends ViewUpdater> viewUpdaterClass =
-				classLoader.loadClass(fullClassName).asSubclass(ViewUpdater.class);
-			final Constructor<? extends ViewUpdater> constructor =
-				viewUpdaterClass.getConstructor();
-			
-			constructor.setAccessible(true);
-			updater = constructor.newInstance();
+			updater = ViewUpdaterRegistry.obtainFactory(context.getClassLoader(), fullClassName).create();
 		} catch (NoSuchMethodException e) {
 			throw new IllegalStateException(attrs.getPositionDescription() +
 				": Error creating LayoutManager " + className, e);
 		} catch (ClassNotFoundException e) {
 			throw new IllegalStateException(attrs.getPositionDescription()
 				+ ": Unable to find ViewUpdater" + className, e);
-		} catch (InvocationTargetException e) {
-			throw new IllegalStateException(attrs.getPositionDescription()
-				+ ": Could not instantiate the ViewUpdater: " + className, e);
-		} catch (InstantiationException e) {
-			throw new IllegalStateException(attrs.getPositionDescription()
-				+ ": Could not instantiate the ViewUpdater: " + className, e);
-		} catch (IllegalAccessException e) {
+		} catch (IllegalStateException e) {
 			throw new IllegalStateException(attrs.getPositionDescription()
-				+ ": Cannot access non-public constructor " + className, e);
+				+ ": " + e.getMessage(), e);
 		} catch (ClassCastException e) {
 			throw new IllegalStateException(attrs.getPositionDescription()
 				+ ": Class is not a ViewUpdater " + className, e);
@@ -532,7 +820,7 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 			view.offsetTopAndBottom(-allowedDelta);
 		}
 		
-		final int step = activeCardTop / TOP_CARD_COUNT;
+		final int step = activeCardTop / topCardCount;
 		final int jDelta = (int) Math.floor(1f * delta * step / cardHeight);
 		
 		View prevView = null;
@@ -572,7 +860,7 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 			delta = dy;
 		}
 		
-		final int step = activeCardTop / TOP_CARD_COUNT;
+		final int step = activeCardTop / topCardCount;
 		final int jDelta = (int) Math.ceil(1f * delta * step / cardHeight);
 		
 		for (int i = childCount - 1; i >= 0; i--) {
@@ -637,7 +925,9 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 			detachView(viewCache.valueAt(i));
 		}
 		
-		if (!state.isPreLayout()) {
+		// Pre-layout of changes only keeps cards in place, so item animator reuses their holders
+		// instead of binding new ones
+		if (!state.isPreLayout() || !state.didStructureChange()) {
 			fillLeft(anchorPos, recycler);
 			fillRight(anchorPos, recycler);
 		}
@@ -645,6 +935,14 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 		for (int i = 0, cnt = viewCache.size(); i < cnt; i++) {
 			recycler.recycleView(viewCache.valueAt(i));
 		}
+		viewCache.clear();
+	}
+	
+	/**
+	 * @return position of the first laid out card, the card partly hidden above stacked cards.
+	 */
+	private int getFirstFilledPosition(int anchorPos) {
+		return Math.max(0, anchorPos - topCardCount - 1);
 	}
 	
 	private void fillLeft(int anchorPos, RecyclerView.Recycler recycler) {
@@ -652,9 +950,9 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 			return;
 		}
 		
-		final int layoutStep = activeCardTop / TOP_CARD_COUNT;
-		int pos = Math.max(0, anchorPos - TOP_CARD_COUNT - 1);
-		int viewTop = Math.max(-1, TOP_CARD_COUNT - (anchorPos - pos)) * layoutStep;
+		final int layoutStep = activeCardTop / topCardCount;
+		int pos = getFirstFilledPosition(anchorPos);
+		int viewTop = Math.max(-1, topCardCount - (anchorPos - pos)) * layoutStep;
 		
 		while (pos < anchorPos) {
 			View view = viewCache.get(pos);
@@ -701,19 +999,39 @@ public class CardSliderLayoutManager extends RecyclerView.LayoutManager
 			}
 			
 			viewTop = getDecoratedBottom(view);
-			fillBottom = viewTop < height + cardHeight;
 			pos++;
+			fillBottom = viewTop < height + cardHeight && pos - anchorPos <= maxBottomCardCount;
 		}
 	}
 	
+	@SuppressWarnings("unchecked")
 	private void updateViewScale() {
+		final ViewUpdater.TransformTargetResolver<Object> resolver =
+			viewUpdater instanceof ViewUpdater.TransformTargetResolver
+				? (ViewUpdater.TransformTargetResolver<Object>) viewUpdater : null;
+		
 		for (int i = 0, cnt = getChildCount(); i < cnt; i++) {
 			final View view = getChildAt(i);
 			final int viewTop = getDecoratedTop(view);
 			
 			final float position = ((float) (viewTop - activeCardTop) / cardHeight);
-			viewUpdater.updateView(view, position);
+			if (resolver != null) {
+				resolver.updateView(view, getTransformTarget(view, resolver), position);
+			} else {
+				viewUpdater.updateView(view, position);
+			}
 		}
 	}
 	
+	private Object getTransformTarget(@NonNull View view, @NonNull ViewUpdater.TransformTargetResolver<Object> resolver) {
+		final Object tag = view.getTag(R.id.card_slider_transform_target);
+		if (tag instanceof TransformTargetTag && ((TransformTargetTag) tag).resolver == viewUpdater) {
+			return ((TransformTargetTag) tag).target;
+		}
+		
+		final Object target = resolver.resolveTransformTarget(view);
+		view.setTag(R.id.card_slider_transform_target, new TransformTargetTag(viewUpdater, target));
+		return target;
+	}
+	
 }
\ No newline at end of file
@@ -2,13 +2,13 @@ package com.ramotion.cardslider;
 
 import android.support.annotation.NonNull;
 import android.support.v4.view.ViewCompat;
-import android.util.Log;
 import android.view.View;
 
 /**
  * Default implementation of {@link CardSliderLayoutManager.ViewUpdater}
  */
-public class DefaultViewUpdater implements CardSliderLayoutManager.ViewUpdater {
+public class DefaultViewUpdater implements CardSliderLayoutManager.ViewUpdater,
+	CardSliderLayoutManager.ViewUpdater.GeometryListener {
 	
 	public static final float SCALE_TOP = 0.65f;
 	public static final float SCALE_CENTER = 0.95f;
@@ -19,7 +19,8 @@ public class DefaultViewUpdater implements CardSliderLayoutManager.ViewUpdater {
 	public static final int Z_CENTER_1 = 12;
 	public static final int Z_CENTER_2 = 16;
 	public static final int Z_BOTTOM = 8;
-	private static final String TAG = DefaultViewUpdater.class.getSimpleName();
+	
+	private static final float FAR_CARD_POSITION = 2f;
 	
 	private int cardHeight;
 	private int activeCardTop;
@@ -38,7 +39,15 @@ public class DefaultViewUpdater implements CardSliderLayoutManager.ViewUpdater {
 	@Override
 	public void onLayoutManagerInitialized(@NonNull CardSliderLayoutManager lm) {
 		this.lm = lm;
-		
+		computeGeometry(lm);
+	}
+	
+	@Override
+	public void onGeometryChanged(@NonNull CardSliderLayoutManager lm) {
+		computeGeometry(lm);
+	}
+	
+	private void computeGeometry(@NonNull CardSliderLayoutManager lm) {
 		this.cardHeight = lm.getCardHeight();
 		this.activeCardTop = lm.getActiveCardTop();
 		this.activeCardBottom = lm.getActiveCardBottom();
@@ -88,7 +97,10 @@ public class DefaultViewUpdater implements CardSliderLayoutManager.ViewUpdater {
 			alpha = 1;
 			z = Z_BOTTOM;
 			
-			if (previewView != null) {
+			if (position >= FAR_CARD_POSITION
+				&& lm.getQualityLevel() >= AdaptiveQualityHelper.QUALITY_NO_FAR_TRANSLATION) {
+				y = ViewCompat.getTranslationY(view);
+			} else if (previewView != null) {
 				final float prevViewScale;
 				final float prevTransition;
 				final int prevRight;
@@ -114,12 +126,11 @@ public class DefaultViewUpdater implements CardSliderLayoutManager.ViewUpdater {
 				y = 0;
 			}
 		}
-		Log.d(TAG, "y:" + y);
-		Log.d(TAG, "z:" + z);
-		Log.d(TAG, "scale:" + scale);
 		ViewCompat.setScaleX(view, scale);
 		ViewCompat.setScaleY(view, scale);
-		ViewCompat.setZ(view, z);
+		if (lm.getQualityLevel() < AdaptiveQualityHelper.QUALITY_NO_ELEVATION) {
+			ViewCompat.setZ(view, z);
+		}
 		ViewCompat.setTranslationY(view, y);
 		ViewCompat.setAlpha(view, alpha);
 		
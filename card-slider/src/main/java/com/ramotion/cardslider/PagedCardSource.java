@@ -0,0 +1,334 @@
+package com.ramotion.cardslider;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+
+import java.security.InvalidParameterException;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paged content of a {@link CardSliderLayoutManager} slider, for catalogs too large to be kept
+ * in memory. Adapter reports {@link #getItemCount()} as its item count and binds
+ * {@link #getItem(int)}, which is {@code null} placeholder until page of the item is loaded,
+ * so binding and scrolling never wait for I/O.
+ * <p>
+ * Pages are loaded in background around the active card, {@code prefetchDistance} pages
+ * in both directions, one at a time on a loader thread shared by all sources. Loaded pages
+ * far from the active card are evicted when there are too many of them, and on memory pressure.
+ *
+ * @param <T> Item type.
+ */
+public class PagedCardSource<T> extends RecyclerView.OnScrollListener implements ComponentCallbacks2 {
+
+	private static final int DEFAULT_PAGE_SIZE = 50;
+	private static final int DEFAULT_PREFETCH_DISTANCE = 1;
+
+	/**
+	 * Loads pages of items, e.g. from a local database.
+	 */
+	public interface PageLoader<T> {
+		/**
+		 * Called on a background thread.
+		 *
+		 * @param start First position of page.
+		 * @param count Page size, smaller for the last page.
+		 * @return Items of page.
+		 */
+		@NonNull List<T> loadPage(int start, int count);
+	}
+
+	/**
+	 * Listener of loaded pages, e.g. to rebind placeholders by
+	 * {@link RecyclerView.Adapter#notifyItemRangeChanged(int, int)}.
+	 */
+	public interface OnPageLoadedListener {
+		/**
+		 * Called on the main thread.
+		 *
+		 * @param start First position of loaded page.
+		 * @param count Number of loaded items.
+		 */
+		void onPageLoaded(int start, int count);
+
+		/**
+		 * Called on the main thread when {@link PageLoader} threw an exception. Page stays not loaded,
+		 * it is requested again when one of its items is requested.
+		 *
+		 * @param start First position of page.
+		 * @param count Page size.
+		 * @param e     Exception thrown by loader.
+		 */
+		void onPageLoadFailed(int start, int count, @NonNull RuntimeException e);
+	}
+
+	private static ThreadPoolExecutor loaderExecutor;
+
+	private final SparseArray<List<T>> pages = new SparseArray<>();
+	private final SparseBooleanArray loadingPages = new SparseBooleanArray();
+	private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+	private final PageLoader<T> loader;
+	private final int itemCount;
+	private final int pageSize;
+	private final int prefetchDistance;
+	private final int maxPages;
+
+	private RecyclerView recyclerView;
+	private OnPageLoadedListener listener;
+	private int activePage;
+
+	/**
+	 * Creates PagedCardSource with default page size (50) and prefetch distance (1 page).
+	 *
+	 * @param itemCount Total number of items.
+	 * @param loader    Page loader.
+	 */
+	public PagedCardSource(int itemCount, @NonNull PageLoader<T> loader) {
+		this(itemCount, DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_DISTANCE, loader);
+	}
+
+	/**
+	 * @param itemCount        Total number of items.
+	 * @param pageSize         Number of items in page.
+	 * @param prefetchDistance Number of pages loaded ahead of active card page, in both directions.
+	 * @param loader           Page loader.
+	 */
+	public PagedCardSource(int itemCount, int pageSize, int prefetchDistance, @NonNull PageLoader<T> loader) {
+		if (itemCount < 0 || pageSize <= 0 || prefetchDistance < 0) {
+			throw new InvalidParameterException("Invalid itemCount, pageSize or prefetchDistance");
+		}
+
+		this.itemCount = itemCount;
+		this.pageSize = pageSize;
+		this.prefetchDistance = prefetchDistance;
+		this.loader = loader;
+		this.maxPages = 2 * windowSize();
+	}
+
+	/**
+	 * Attaches the {@link PagedCardSource} to the provided RecyclerView, so pages follow its active card.
+	 * Source is registered for memory trim callbacks while attached.
+	 * You can call this method with {@code null} to detach it from the current RecyclerView.
+	 *
+	 * @throws InvalidParameterException if provided RecyclerView has LayoutManager which is not
+	 * instance of CardSliderLayoutManager
+	 */
+	public void attachToRecyclerView(@Nullable RecyclerView recyclerView) {
+		if (this.recyclerView == recyclerView) {
+			return;
+		}
+
+		if (recyclerView != null && !(recyclerView.getLayoutManager() instanceof CardSliderLayoutManager)) {
+			throw new InvalidParameterException("LayoutManager must be instance of CardSliderLayoutManager");
+		}
+
+		if (this.recyclerView != null) {
+			this.recyclerView.removeOnScrollListener(this);
+			this.recyclerView.getContext().getApplicationContext().unregisterComponentCallbacks(this);
+		}
+
+		this.recyclerView = recyclerView;
+
+		if (recyclerView != null) {
+			recyclerView.addOnScrollListener(this);
+			recyclerView.getContext().getApplicationContext().registerComponentCallbacks(this);
+		}
+	}
+
+	public void setOnPageLoadedListener(@Nullable OnPageLoadedListener listener) {
+		this.listener = listener;
+	}
+
+	public int getItemCount() {
+		return itemCount;
+	}
+
+	/**
+	 * Returns item at position, or {@code null} placeholder if its page is not loaded yet.
+	 * Missing page is requested, {@link OnPageLoadedListener} is notified when it is loaded.
+	 */
+	@Nullable
+	public T getItem(int position) {
+		final int page = position / pageSize;
+		final List<T> items = pages.get(page);
+		if (items == null) {
+			requestPage(page);
+			return null;
+		}
+
+		final int offset = position - page * pageSize;
+		return offset < items.size() ? items.get(offset) : null;
+	}
+
+	/**
+	 * Moves loading window to the page of active card. Called automatically on scroll
+	 * when attached to RecyclerView.
+	 */
+	public void setActivePosition(int position) {
+		if (position == RecyclerView.NO_POSITION) {
+			return;
+		}
+
+		final int page = position / pageSize;
+		if (page == activePage && pages.get(page) != null) {
+			return;
+		}
+
+		activePage = page;
+
+		// Nearest pages first
+		requestPage(page);
+		for (int i = 1; i <= prefetchDistance; i++) {
+			requestPage(page + i);
+			requestPage(page - i);
+		}
+
+		trimToSize(maxPages);
+	}
+
+	@Override
+	public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+		setActivePosition(((CardSliderLayoutManager) recyclerView.getLayoutManager()).getActiveCardPosition());
+	}
+
+	@Override
+	public void onTrimMemory(int level) {
+		if (level >= TRIM_MEMORY_RUNNING_LOW) {
+			// Keep only the window around active card
+			trimToSize(windowSize());
+		}
+	}
+
+	@Override
+	public void onLowMemory() {
+		onTrimMemory(TRIM_MEMORY_COMPLETE);
+	}
+
+	@Override
+	public void onConfigurationChanged(Configuration newConfig) {
+	}
+
+	private int windowSize() {
+		return 2 * prefetchDistance + 1;
+	}
+
+	private int pageCount() {
+		return (itemCount + pageSize - 1) / pageSize;
+	}
+
+	private void requestPage(final int page) {
+		if (page < 0 || page >= pageCount() || pages.get(page) != null || loadingPages.get(page)) {
+			return;
+		}
+
+		loadingPages.put(page, true);
+
+		final int start = page * pageSize;
+		final int count = Math.min(pageSize, itemCount - start);
+		getLoaderExecutor().execute(new Runnable() {
+			@Override
+			public void run() {
+				List<T> result;
+				RuntimeException error;
+				try {
+					result = loader.loadPage(start, count);
+					error = null;
+				} catch (RuntimeException e) {
+					result = null;
+					error = e;
+				}
+
+				final List<T> items = result;
+				final RuntimeException exception = error;
+				mainHandler.post(new Runnable() {
+					@Override
+					public void run() {
+						if (exception != null) {
+							onPageLoadFailed(page, start, count, exception);
+						} else {
+							onPageLoaded(page, start, items);
+						}
+					}
+				});
+			}
+		});
+	}
+
+	private void onPageLoadFailed(int page, int start, int count, @NonNull RuntimeException e) {
+		loadingPages.delete(page);
+
+		if (listener != null) {
+			listener.onPageLoadFailed(start, count, e);
+		}
+	}
+
+	private void onPageLoaded(int page, int start, @NonNull List<T> items) {
+		loadingPages.delete(page);
+		pages.put(page, items);
+		trimToSize(maxPages);
+
+		if (listener != null && !items.isEmpty()) {
+			listener.onPageLoaded(start, items.size());
+		}
+	}
+
+	/**
+	 * Pages are loaded one at a time, so loading of a large catalog doesn't compete with
+	 * decoding of card images. Thread is stopped when there is nothing to load.
+	 */
+	private static synchronized ThreadPoolExecutor getLoaderExecutor() {
+		if (loaderExecutor == null) {
+			loaderExecutor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(@NonNull final Runnable runnable) {
+						return new Thread(new Runnable() {
+							@Override
+							public void run() {
+								Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+								runnable.run();
+							}
+						}, "PagedCardSource");
+					}
+				});
+			loaderExecutor.allowCoreThreadTimeOut(true);
+		}
+		return loaderExecutor;
+	}
+
+	/**
+	 * Evicts pages farthest from active page, until at most {@code size} pages are left.
+	 * Pages of the window around active card are never evicted.
+	 */
+	private void trimToSize(int size) {
+		while (pages.size() > size) {
+			int farthest = -1;
+			int maxDistance = prefetchDistance;
+			for (int i = 0, cnt = pages.size(); i < cnt; i++) {
+				final int distance = Math.abs(pages.keyAt(i) - activePage);
+				if (distance > maxDistance) {
+					maxDistance = distance;
+					farthest = i;
+				}
+			}
+
+			if (farthest == -1) {
+				return;
+			}
+			pages.removeAt(farthest);
+		}
+	}
+
+}
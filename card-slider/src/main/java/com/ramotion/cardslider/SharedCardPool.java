@@ -0,0 +1,70 @@
+package com.ramotion.cardslider;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * {@link RecyclerView.RecycledViewPool} shared by many sliders on one screen,
+ * e.g. card sliders nested in a vertical feed.
+ * <p>
+ * Cards of a slider scrolled out of the feed return to this pool and are picked up by the
+ * next slider, so the number of inflated cards depends on the number of visible sliders
+ * rather than on the total number of sliders.
+ */
+public class SharedCardPool extends RecyclerView.RecycledViewPool {
+
+	private static final int DEFAULT_CARDS_PER_SLIDER = 6;
+
+	private final int cardsPerSlider;
+	private final int maxRecycledViews;
+
+	/**
+	 * Creates SharedCardPool with default cards-per-slider value.
+	 *
+	 * @param visibleSliders Maximum number of sliders visible at the same time.
+	 */
+	public SharedCardPool(int visibleSliders) {
+		this(visibleSliders, DEFAULT_CARDS_PER_SLIDER);
+	}
+
+	/**
+	 * @param visibleSliders Maximum number of sliders visible at the same time.
+	 * @param cardsPerSlider Maximum number of cards attached to one slider. Default value is 6.
+	 */
+	public SharedCardPool(int visibleSliders, int cardsPerSlider) {
+		this.cardsPerSlider = cardsPerSlider;
+		this.maxRecycledViews = Math.max(1, visibleSliders + 1) * cardsPerSlider;
+	}
+
+	/**
+	 * Attaches slider to this pool. RecyclerView must use {@link CardSliderLayoutManager}.
+	 * Layout manager is switched to recycle its children on detach, and card creation is
+	 * limited to {@link CardSliderLayoutManager#getInitialPrefetchItemCount()} cards ahead of time.
+	 *
+	 * @param recyclerView Slider to attach.
+	 * @param viewType     View type of slider cards.
+	 */
+	public void attach(@NonNull RecyclerView recyclerView, int viewType) {
+		final RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+		if (!(layoutManager instanceof CardSliderLayoutManager)) {
+			throw new IllegalStateException("LayoutManager must be instance of CardSliderLayoutManager");
+		}
+
+		final CardSliderLayoutManager lm = (CardSliderLayoutManager) layoutManager;
+		lm.setRecycleChildrenOnDetach(true);
+		lm.setInitialPrefetchItemCount(Math.min(cardsPerSlider, lm.getInitialPrefetchItemCount()));
+
+		setMaxRecycledViews(viewType, maxRecycledViews);
+		recyclerView.setRecycledViewPool(this);
+	}
+
+	/**
+	 * Attaches slider with single view type to this pool.
+	 *
+	 * @see #attach(RecyclerView, int)
+	 */
+	public void attach(@NonNull RecyclerView recyclerView) {
+		attach(recyclerView, 0);
+	}
+
+}
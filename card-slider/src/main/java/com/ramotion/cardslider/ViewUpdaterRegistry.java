@@ -0,0 +1,120 @@
+package com.ramotion.cardslider;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Process-wide registry of {@link CardSliderLayoutManager.ViewUpdater.Factory} instances
+ * keyed by full class name of ViewUpdater.
+ * <p>
+ * Used by {@link CardSliderLayoutManager} to create ViewUpdater set by "viewUpdater" XML attribute.
+ * Factories registered with {@link #register(String, CardSliderLayoutManager.ViewUpdater.Factory)}
+ * avoid reflection entirely. Otherwise the constructor is resolved by reflection once per class
+ * and cached.
+ */
+public final class ViewUpdaterRegistry {
+
+	private static final Map<String, CardSliderLayoutManager.ViewUpdater.Factory> factories = new HashMap<>();
+
+	private ViewUpdaterRegistry() {
+	}
+
+	/**
+	 * Registers factory for ViewUpdater class name, used in "viewUpdater" XML attribute.
+	 *
+	 * @param className Full class name of ViewUpdater.
+	 * @param factory   Factory that creates ViewUpdater instances.
+	 */
+	public static void register(@NonNull String className, @NonNull CardSliderLayoutManager.ViewUpdater.Factory factory) {
+		synchronized (factories) {
+			factories.put(className, factory);
+		}
+	}
+
+	/**
+	 * Registers factory for ViewUpdater class.
+	 *
+	 * @see #register(String, CardSliderLayoutManager.ViewUpdater.Factory)
+	 */
+	public static void register(@NonNull Class<? extends CardSliderLayoutManager.ViewUpdater> updaterClass,
+								@NonNull CardSliderLayoutManager.ViewUpdater.Factory factory) {
+		register(updaterClass.getName(), factory);
+	}
+
+	/**
+	 * Removes registered or cached factory for ViewUpdater class name.
+	 */
+	public static void unregister(@NonNull String className) {
+		synchronized (factories) {
+			factories.remove(className);
+		}
+	}
+
+	@Nullable
+	static CardSliderLayoutManager.ViewUpdater.Factory getFactory(@NonNull String className) {
+		synchronized (factories) {
+			return factories.get(className);
+		}
+	}
+
+	/**
+	 * Returns registered factory or resolves ViewUpdater constructor by reflection and caches it.
+	 */
+	@NonNull
+	static CardSliderLayoutManager.ViewUpdater.Factory obtainFactory(@NonNull ClassLoader classLoader, @NonNull String className)
+		throws ClassNotFoundException, NoSuchMethodException {
+		CardSliderLayoutManager.ViewUpdater.Factory factory = getFactory(className);
+		if (factory != null) {
+			return factory;
+		}
+
+		final Class<? extends CardSliderLayoutManager.ViewUpdater> viewUpdaterClass =
+			classLoader.loadClass(className).asSubclass(CardSliderLayoutManager.ViewUpdater.class);
+		final Constructor<? extends CardSliderLayoutManager.ViewUpdater> constructor =
+			viewUpdaterClass.getConstructor();
+		constructor.setAccessible(true);
+
+		factory = new ConstructorFactory(constructor);
+		synchronized (factories) {
+			final CardSliderLayoutManager.ViewUpdater.Factory registered = factories.get(className);
+			if (registered != null) {
+				return registered;
+			}
+			factories.put(className, factory);
+		}
+
+		return factory;
+	}
+
+	private static class ConstructorFactory implements CardSliderLayoutManager.ViewUpdater.Factory {
+
+		private final Constructor<? extends CardSliderLayoutManager.ViewUpdater> constructor;
+
+		ConstructorFactory(Constructor<? extends CardSliderLayoutManager.ViewUpdater> constructor) {
+			this.constructor = constructor;
+		}
+
+		@NonNull
+		@Override
+		public CardSliderLayoutManager.ViewUpdater create() {
+			try {
+				return constructor.newInstance();
+			} catch (InvocationTargetException e) {
+				throw new IllegalStateException("Could not instantiate the ViewUpdater: "
+					+ constructor.getDeclaringClass().getName(), e);
+			} catch (InstantiationException e) {
+				throw new IllegalStateException("Could not instantiate the ViewUpdater: "
+					+ constructor.getDeclaringClass().getName(), e);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Cannot access non-public constructor "
+					+ constructor.getDeclaringClass().getName(), e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.ramotion.cardslider;
+
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AnchorPositionsTest {
+
+	@Test
+	public void insertBeforeAnchorShiftsIt() {
+		assertEquals(8, AnchorPositions.afterInsert(5, 0, 3));
+	}
+
+	@Test
+	public void insertAtAnchorShiftsIt() {
+		assertEquals(7, AnchorPositions.afterInsert(5, 5, 2));
+	}
+
+	@Test
+	public void insertAfterAnchorKeepsIt() {
+		assertEquals(5, AnchorPositions.afterInsert(5, 6, 10));
+	}
+
+	@Test
+	public void noAnchorStaysUnset() {
+		assertEquals(RecyclerView.NO_POSITION, AnchorPositions.afterInsert(RecyclerView.NO_POSITION, 0, 1));
+		assertEquals(RecyclerView.NO_POSITION, AnchorPositions.afterRemove(RecyclerView.NO_POSITION, 0, 1, 10));
+		assertEquals(RecyclerView.NO_POSITION, AnchorPositions.afterMove(RecyclerView.NO_POSITION, 0, 3, 1));
+	}
+
+	@Test
+	public void removeBeforeAnchorShiftsItByCount() {
+		assertEquals(2, AnchorPositions.afterRemove(5, 0, 3, 17));
+		assertEquals(2, AnchorPositions.afterRemove(5, 2, 3, 17));
+	}
+
+	@Test
+	public void removeAfterAnchorKeepsIt() {
+		assertEquals(5, AnchorPositions.afterRemove(5, 6, 3, 17));
+	}
+
+	@Test
+	public void removedAnchorIsReplacedByNextCard() {
+		assertEquals(4, AnchorPositions.afterRemove(5, 4, 3, 17));
+		assertEquals(5, AnchorPositions.afterRemove(5, 5, 1, 19));
+	}
+
+	@Test
+	public void removedLastAnchorIsReplacedByPreviousCard() {
+		assertEquals(7, AnchorPositions.afterRemove(9, 8, 2, 8));
+	}
+
+	@Test
+	public void removingAllItemsClearsAnchor() {
+		assertEquals(RecyclerView.NO_POSITION, AnchorPositions.afterRemove(5, 0, 20, 0));
+	}
+
+	@Test
+	public void movedAnchorFollowsItsItem() {
+		assertEquals(2, AnchorPositions.afterMove(5, 5, 2, 1));
+		assertEquals(9, AnchorPositions.afterMove(5, 5, 9, 1));
+		assertEquals(11, AnchorPositions.afterMove(6, 5, 10, 2));
+	}
+
+	@Test
+	public void moveAcrossAnchorShiftsIt() {
+		assertEquals(4, AnchorPositions.afterMove(5, 1, 8, 1));
+		assertEquals(6, AnchorPositions.afterMove(5, 8, 1, 1));
+		assertEquals(6, AnchorPositions.afterMove(5, 8, 5, 1));
+	}
+
+	@Test
+	public void moveOnOneSideOfAnchorKeepsIt() {
+		assertEquals(5, AnchorPositions.afterMove(5, 0, 3, 1));
+		assertEquals(5, AnchorPositions.afterMove(5, 9, 6, 1));
+	}
+
+}
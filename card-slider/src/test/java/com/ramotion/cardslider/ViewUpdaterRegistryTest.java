@@ -0,0 +1,134 @@
+package com.ramotion.cardslider;
+
+import android.support.annotation.NonNull;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ViewUpdaterRegistryTest {
+
+	private static final String MISSING_CLASS = "com.ramotion.cardslider.MissingViewUpdater";
+
+	public static class TestViewUpdater implements CardSliderLayoutManager.ViewUpdater {
+		@Override
+		public void onLayoutManagerInitialized(@NonNull CardSliderLayoutManager lm) {
+		}
+
+		@Override
+		public void updateView(@NonNull View view, float position) {
+		}
+	}
+
+	public static class NoDefaultConstructorViewUpdater extends TestViewUpdater {
+		public NoDefaultConstructorViewUpdater(int unused) {
+		}
+	}
+
+	public static class FailingViewUpdater extends TestViewUpdater {
+		public FailingViewUpdater() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private final ClassLoader classLoader = getClass().getClassLoader();
+
+	@After
+	public void tearDown() {
+		ViewUpdaterRegistry.unregister(MISSING_CLASS);
+		ViewUpdaterRegistry.unregister(TestViewUpdater.class.getName());
+		ViewUpdaterRegistry.unregister(FailingViewUpdater.class.getName());
+	}
+
+	@Test
+	public void registeredFactoryIsUsedWithoutLoadingClass() throws Exception {
+		final CardSliderLayoutManager.ViewUpdater.Factory factory = new TestFactory();
+		ViewUpdaterRegistry.register(MISSING_CLASS, factory);
+
+		assertSame(factory, ViewUpdaterRegistry.obtainFactory(classLoader, MISSING_CLASS));
+	}
+
+	@Test
+	public void registeredByClassFactoryIsKeyedByClassName() throws Exception {
+		final CardSliderLayoutManager.ViewUpdater.Factory factory = new TestFactory();
+		ViewUpdaterRegistry.register(TestViewUpdater.class, factory);
+
+		assertSame(factory, ViewUpdaterRegistry.getFactory(TestViewUpdater.class.getName()));
+	}
+
+	@Test
+	public void reflectiveFactoryIsCached() throws Exception {
+		final String className = TestViewUpdater.class.getName();
+		assertNull(ViewUpdaterRegistry.getFactory(className));
+
+		final CardSliderLayoutManager.ViewUpdater.Factory factory = ViewUpdaterRegistry.obtainFactory(classLoader, className);
+		assertSame(factory, ViewUpdaterRegistry.getFactory(className));
+		assertSame(factory, ViewUpdaterRegistry.obtainFactory(classLoader, className));
+	}
+
+	@Test
+	public void reflectiveFactoryCreatesNewInstances() throws Exception {
+		final CardSliderLayoutManager.ViewUpdater.Factory factory =
+			ViewUpdaterRegistry.obtainFactory(classLoader, TestViewUpdater.class.getName());
+
+		final CardSliderLayoutManager.ViewUpdater first = factory.create();
+		final CardSliderLayoutManager.ViewUpdater second = factory.create();
+		assertEquals(TestViewUpdater.class, first.getClass());
+		assertNotSame(first, second);
+	}
+
+	@Test
+	public void unregisterRemovesCachedFactory() throws Exception {
+		final String className = TestViewUpdater.class.getName();
+		ViewUpdaterRegistry.obtainFactory(classLoader, className);
+
+		ViewUpdaterRegistry.unregister(className);
+		assertNull(ViewUpdaterRegistry.getFactory(className));
+	}
+
+	@Test(expected = ClassNotFoundException.class)
+	public void missingClassIsNotFound() throws Exception {
+		ViewUpdaterRegistry.obtainFactory(classLoader, MISSING_CLASS);
+	}
+
+	@Test(expected = NoSuchMethodException.class)
+	public void classWithoutDefaultConstructorIsRejected() throws Exception {
+		ViewUpdaterRegistry.obtainFactory(classLoader, NoDefaultConstructorViewUpdater.class.getName());
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void classWhichIsNotViewUpdaterIsRejected() throws Exception {
+		ViewUpdaterRegistry.obtainFactory(classLoader, String.class.getName());
+	}
+
+	@Test
+	public void constructorExceptionIsChained() throws Exception {
+		final CardSliderLayoutManager.ViewUpdater.Factory factory =
+			ViewUpdaterRegistry.obtainFactory(classLoader, FailingViewUpdater.class.getName());
+		try {
+			factory.create();
+			fail();
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof InvocationTargetException);
+			assertTrue(e.getCause().getCause() instanceof UnsupportedOperationException);
+		}
+	}
+
+	private static class TestFactory implements CardSliderLayoutManager.ViewUpdater.Factory {
+		@NonNull
+		@Override
+		public CardSliderLayoutManager.ViewUpdater create() {
+			return new TestViewUpdater();
+		}
+	}
+
+}